@@ -0,0 +1,94 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Brings an {@code employees} table created by {@code ddl-auto} up to V1. Such databases are
+ * baselined at V1, so V1 itself never runs on them: depending on the entity version that created
+ * them they lack the {@code version} column, the two indexes or the {@code employees_seq} table.
+ * MySQL has no {@code ADD COLUMN IF NOT EXISTS}, so each piece is checked in the JDBC metadata.
+ * On a database created by V1 only the sequence check runs, and it changes nothing.
+ */
+public class V4__UpgradeDdlAutoEmployees extends BaseJavaMigration {
+
+    // Must match the allocationSize of Employee.id.
+    static final long ID_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            if (!hasColumn(connection, "employees", "version")) {
+                // Existing rows start at version 0, the value Hibernate gives a new entity.
+                statement.execute("ALTER TABLE employees ADD COLUMN version BIGINT NOT NULL DEFAULT 0");
+            }
+            if (!hasIndex(connection, "employees", "uk_employees_email")) {
+                statement.execute("CREATE UNIQUE INDEX uk_employees_email ON employees (email)");
+            }
+            if (!hasIndex(connection, "employees", "idx_employees_last_first")) {
+                statement.execute("CREATE INDEX idx_employees_last_first ON employees (last_name, first_name)");
+            }
+            if (!hasTable(connection, "employees_seq")) {
+                statement.execute("CREATE TABLE employees_seq (next_val BIGINT) ENGINE = InnoDB");
+            }
+            statement.execute("INSERT INTO employees_seq (next_val) "
+                    + "SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM employees_seq)");
+            // Hibernate's pooled optimizer hands out the block of ids that ends at the value it
+            // reads, so the first free id must be at least a whole block below next_val.
+            statement.execute("UPDATE employees_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + "
+                    + ID_ALLOCATION_SIZE + " FROM employees) WHERE next_val < (SELECT COALESCE(MAX(id), 0) + "
+                    + ID_ALLOCATION_SIZE + " FROM employees)");
+        }
+    }
+
+    private static boolean hasTable(Connection connection, String table) throws SQLException {
+        return tableName(connection, table) != null;
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                tableName(connection, table), null)) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasIndex(Connection connection, String table, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                tableName(connection, table), false, false)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // The name as the database stores it, which is upper case on some of them.
+    private static String tableName(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), "%",
+                new String[]{"TABLE"})) {
+            while (tables.next()) {
+                if (table.equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                    return tables.getString("TABLE_NAME");
+                }
+            }
+        }
+        return null;
+    }
+}
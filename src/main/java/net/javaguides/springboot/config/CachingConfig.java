@@ -0,0 +1,12 @@
+package net.javaguides.springboot.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+// Outside the single-flight aspect, so cache hits return without joining an in-flight call.
+@EnableCaching(order = SingleFlightAspect.ORDER - 1)
+public class CachingConfig {
+
+    public static final String EMPLOYEES_CACHE = "employees";
+}
@@ -0,0 +1,26 @@
+package net.javaguides.springboot.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} outside of web endpoints, so every {@code EmployeeService} method
+ * publishes an {@code employee.service} timer tagged with its class and method.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String EMPLOYEE_SERVICE_TIMER = "employee.service";
+    public static final String DUPLICATE_EMAIL_COUNTER = "employee.duplicate.email";
+    public static final String NOT_FOUND_COUNTER = "employee.not.found";
+    public static final String SINGLE_FLIGHT_CALLS = "employee.single.flight.calls";
+    public static final String LOOKUP_BATCH_SIZE = "employee.lookup.batch.size";
+    public static final String CHANGE_RELAY_FAILURES = "employee.changes.relay.failures";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package net.javaguides.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to the read replicas listed in
+ * {@code employee.datasource.replica-urls}. Replicas share the primary's credentials and pool
+ * size, and do not block startup when they are unreachable. They wait at most
+ * {@code replica-connection-timeout} for a connection, so a busy or unreachable replica costs a
+ * read little before it moves on. Replication is asynchronous, so a read-only call right after
+ * a write may not see it yet. Lookups by id are not read-only and stay on the primary: they fill
+ * the employees cache, which would keep a stale row for its whole expiry, and they back the read
+ * before a PUT, where a stale version would turn into a spurious 409.
+ */
+@Configuration
+@ConditionalOnProperty("employee.datasource.replica-urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             @Value("${employee.datasource.replica-urls}") List<String> replicaUrls,
+                                                             @Value("${employee.datasource.replica-retry-interval:30s}") Duration retryInterval,
+                                                             @Value("${employee.datasource.replica-connection-timeout:1s}") Duration connectionTimeout) {
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i));
+            replica.setUsername(dataSourceProperties.determineUsername());
+            replica.setPassword(dataSourceProperties.determinePassword());
+            // -1 means the primary keeps Hikari's default size, which the replica then does too.
+            if (primaryDataSource.getMaximumPoolSize() > 0) {
+                replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            }
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Hikari expects a validation to fit in the connection timeout; 250ms is its floor.
+            replica.setValidationTimeout(Math.max(250, Math.min(replica.getValidationTimeout(), connectionTimeout.toMillis() / 2)));
+            replica.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            replica.setReadOnly(true);
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, retryInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
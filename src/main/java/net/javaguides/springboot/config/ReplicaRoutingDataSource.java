@@ -0,0 +1,112 @@
+package net.javaguides.springboot.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to the replicas in round-robin order and
+ * everything else to the primary. A replica that cannot open or validate a connection is skipped
+ * for {@code retryInterval}. One whose pool is only exhausted is passed over for that call alone,
+ * so a burst of reads does not take it out of rotation. When no replica hands out a connection,
+ * reads fall back to the primary.
+ * <p>
+ * The routing decision needs the transaction's read-only flag, which Spring only publishes
+ * after the transaction manager has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ * Replicas are closed with this data source; the primary is not.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final Duration retryInterval;
+
+    private final Clock clock;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, Duration retryInterval) {
+        this(primary, replicas, retryInterval, Clock.systemUTC());
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, Duration retryInterval, Clock clock) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.retryInterval = retryInterval;
+        this.clock = clock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                Connection connection = replica.getConnection(username, password);
+                if (connection != null) {
+                    return connection;
+                }
+            }
+        }
+        return username == null ? primary.getConnection() : primary.getConnection(username, password);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private class Replica {
+
+        private final DataSource dataSource;
+
+        private volatile long downUntil;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        // Returns null instead of failing, so the caller can move on to the next candidate.
+        Connection getConnection(String username, String password) {
+            long now = clock.millis();
+            if (now < downUntil) {
+                return null;
+            }
+            try {
+                return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                if (!isPoolTimeout(e)) {
+                    downUntil = now + retryInterval.toMillis();
+                }
+                return null;
+            }
+        }
+
+        // Hikari times out a borrow with SQLTransientConnectionException and chains the last
+        // failure to open a connection, if any; without one the pool was healthy but busy.
+        private static boolean isPoolTimeout(SQLException e) {
+            return e instanceof SQLTransientConnectionException && e.getCause() == null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package net.javaguides.springboot.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Concurrent calls of the annotated method with equal arguments share one invocation and its
+ * result (or exception). Meant for idempotent reads; see {@link SingleFlightAspect}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+}
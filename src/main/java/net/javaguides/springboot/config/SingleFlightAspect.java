@@ -0,0 +1,85 @@
+package net.javaguides.springboot.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces concurrent {@link SingleFlight} calls. The first caller for a method and argument
+ * list runs it; callers arriving while it runs wait on its future instead of running it again.
+ * The in-flight map is a {@link ConcurrentHashMap}, so unrelated keys never contend on a
+ * shared lock. Every call counts towards {@value MetricsConfig#SINGLE_FLIGHT_CALLS}, tagged
+ * with the method and whether it ran ({@code leader}) or waited ({@code coalesced}).
+ */
+@Aspect
+@Component
+@Order(SingleFlightAspect.ORDER)
+public class SingleFlightAspect {
+
+    // Inside the cache interceptor, so only misses coalesce, and outside the transaction
+    // interceptor, so waiting callers never open a transaction or hold a connection.
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private MeterRegistry meterRegistry;
+
+    public SingleFlightAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(net.javaguides.springboot.config.SingleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Key key = new Key(method, Arrays.asList(joinPoint.getArgs()));
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            count(method, "coalesced");
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+
+        count(method, "leader");
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        // Remove before completing, so no caller can join a call that has already finished.
+        inFlight.remove(key, call);
+        call.complete(result);
+        return result;
+    }
+
+    private void count(Method method, String result) {
+        Counter.builder(MetricsConfig.SINGLE_FLIGHT_CALLS)
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record Key(Method method, List<Object> args) {
+    }
+}
@@ -0,0 +1,112 @@
+package net.javaguides.springboot.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Reports how many SQL statements a request issued, as the {@value #HEADER} response header
+ * and as the {@value #METRIC} distribution summary tagged by method and URI pattern.
+ * The header reflects the statements issued before the body started, since headers cannot
+ * change once the response is committed. Work handed off to other threads, such as the
+ * streaming endpoint, is not counted.
+ */
+@Component
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Statement-Count";
+    public static final String METRIC = "http.server.requests.sql.statements";
+
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SqlStatementCountFilter(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.start();
+        CountingResponse countingResponse = new CountingResponse(response);
+        int statements;
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            countingResponse.writeHeader();
+            statements = SqlStatementCounter.stop();
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC)
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                    .register(registry)
+                    .record(statements);
+        }
+    }
+
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private boolean headerWritten;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void writeHeader() {
+            if (!headerWritten && !isCommitted()) {
+                setHeader(HEADER, Integer.toString(SqlStatementCounter.current()));
+            }
+            headerWritten = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
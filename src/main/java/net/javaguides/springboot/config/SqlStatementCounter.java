@@ -0,0 +1,40 @@
+package net.javaguides.springboot.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the JDBC statements Hibernate prepares on the current thread between {@link #start()}
+ * and {@link #stop()}. A batched insert is prepared once per batch, so the count tracks round
+ * trips rather than rows. Registered through {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Returns the number of statements counted so far, or -1 if counting was not started.
+     */
+    public static int current() {
+        int[] count = COUNT.get();
+        return count == null ? -1 : count[0];
+    }
+
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,28 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.service.EmployeeChangeFeed;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Incremental updates for clients that would otherwise poll the whole collection. EventSource
+ * sends {@code Last-Event-ID} when it reconnects, so a dropped connection resumes where it left off.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/employees")
+public class EmployeeChangeController {
+
+    private EmployeeChangeFeed changeFeed;
+
+    public EmployeeChangeController(EmployeeChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @GetMapping(value = "changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId){
+        return changeFeed.subscribe(lastEventId);
+    }
+}
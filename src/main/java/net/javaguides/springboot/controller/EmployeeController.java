@@ -1,59 +1,333 @@
 package net.javaguides.springboot.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.EmployeeBatchResult;
+import net.javaguides.springboot.dto.EmployeeFieldsPage;
+import net.javaguides.springboot.dto.EmployeeIngestionStatus;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeePatch;
+import net.javaguides.springboot.dto.EmployeeSlice;
+import net.javaguides.springboot.dto.IdempotentResponse;
+import net.javaguides.springboot.exception.EmployeeVersionConflictException;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeIngestionService;
 import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.IdempotencyService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private EmployeeIngestionService ingestionService;
+
+    private IdempotencyService idempotencyService;
+
+    private ObjectMapper objectMapper;
+
+    public EmployeeController(EmployeeService employeeService, EmployeeIngestionService ingestionService,
+                              IdempotencyService idempotencyService, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.ingestionService = ingestionService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee) {
-        return employeeService.saveEmployee(employee);
+    public ResponseEntity<?> createEmployee(@RequestBody Employee employee,
+                                            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return create(employee);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Set only when this request is the one that ran; otherwise the stored response is replayed.
+        AtomicReference<ResponseEntity<?>> created = new AtomicReference<>();
+        IdempotentResponse response = idempotencyService.execute(idempotencyKey, requestHash(employee), () -> {
+            created.set(create(employee));
+            return idempotentResponse(created.get());
+        });
+        if (created.get() != null) {
+            return created.get();
+        }
+        ResponseEntity.BodyBuilder replay = ResponseEntity.status(response.status())
+                .header(IDEMPOTENT_REPLAYED, "true");
+        if (response.location() != null) {
+            replay.location(URI.create(response.location()));
+        }
+        if (response.body() == null) {
+            return replay.build();
+        }
+        return replay.contentType(MediaType.APPLICATION_JSON).body(response.body());
+    }
+
+    private ResponseEntity<?> create(Employee employee) {
+        if (!ingestionService.isEnabled()) {
+            return new ResponseEntity<>(employeeService.saveEmployee(employee), HttpStatus.CREATED);
+        }
+        return ingestionService.submit(employee)
+                .<ResponseEntity<?>>map(trackingId -> ResponseEntity
+                        .accepted()
+                        .location(URI.create("/api/employees/ingestion/" + trackingId))
+                        .body(EmployeeIngestionStatus.queued(trackingId)))
+                .orElseGet(() -> ResponseEntity
+                        .status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+
+    @GetMapping("ingestion/{trackingId}")
+    public ResponseEntity<EmployeeIngestionStatus> getIngestionStatus(@PathVariable("trackingId") UUID trackingId){
+        return ingestionService.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("batch")
+    public List<EmployeeBatchResult> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveAll(employees);
     }
 
+    // The ETag counts the changes recorded in the change feed's outbox, so conditional requests are
+    // answered without loading rows. It is read before the rows: a write in between only costs a 200 later.
     @GetMapping
-    public List<Employee> getAllEmployees(){
-        return employeeService.getAllEmployees();
+    public ResponseEntity<List<Employee>> getAllEmployees(WebRequest webRequest){
+        String etag = etag(employeeService.getEmployeesVersion());
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(employeeService.getAllEmployees());
+    }
+
+    @GetMapping(params = {"fields", "!limit"})
+    public List<Map<String, Object>> getAllEmployeeFields(@RequestParam("fields") List<String> fields){
+        return employeeService.getAllEmployeeFields(fields);
+    }
+
+    @GetMapping(params = {"fields", "limit"})
+    public EmployeeFieldsPage getEmployeeFieldsPage(@RequestParam("fields") List<String> fields,
+                                                    @RequestParam(value = "after", defaultValue = "0") long after,
+                                                    @RequestParam("limit") int limit){
+        return employeeService.getEmployeeFieldsAfter(fields, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    @GetMapping(params = {"limit", "!fields"})
+    public EmployeePage getEmployeesPage(@RequestParam(value = "after", defaultValue = "0") long after,
+                                         @RequestParam("limit") int limit){
+        return employeeService.getEmployeesAfter(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    // Results follow the order of ids, repeats included; unknown ids come back as NOT_FOUND entries.
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getEmployeesByIds(@RequestParam("ids") List<Long> employeeIds){
+        if (employeeIds.size() > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_PAGE_SIZE + " ids can be fetched at once.");
+        }
+        // An empty element, as in ids=1,,2, binds as null.
+        if (employeeIds.contains(null)) {
+            return ResponseEntity.badRequest().body("ids must not contain empty values.");
+        }
+        return ResponseEntity.ok(employeeService.getEmployeesByIds(employeeIds));
+    }
+
+    @GetMapping(value = "stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StreamingResponseBody streamAllEmployees(){
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                employeeService.streamAllEmployees(employee -> {
+                    try {
+                        generator.writeObject(employee);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
     }
 
+    @GetMapping("by-name")
+    public EmployeeSlice getEmployeesByName(@RequestParam(value = "firstName", required = false) String firstName,
+                                            @RequestParam("lastName") String lastName,
+                                            @RequestParam(value = "page", defaultValue = "0") int page,
+                                            @RequestParam(value = "size", defaultValue = "20") int size){
+        return employeeService.findEmployeesByName(firstName, lastName,
+                Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    // If-None-Match is checked against the version column alone, without loading the entity.
     @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId){
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId, WebRequest webRequest){
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = employeeService.getEmployeeVersion(employeeId);
+            if (version.isPresent() && webRequest.checkNotModified(etag(version.get()))) {
+                return null;
+            }
+        }
         return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok().eTag(etag(employee.getVersion())).body(employee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId,
-                                                   @RequestBody Employee employee){
+                                                   @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long expectedVersion = ifMatchVersion(ifMatch);
         return employeeService.getEmployeeById(employeeId)
-                .map(savedEmployee -> {
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
+                .map(cachedEmployee -> {
+                    if (expectedVersion != null && cachedEmployee.getVersion() != expectedVersion) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build();
+                    }
+                    // The cached instance is shared with concurrent readers, so the changes go on a copy.
+                    Employee savedEmployee = Employee.builder()
+                            .id(cachedEmployee.getId())
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .version(cachedEmployee.getVersion())
+                            .build();
 
-                    Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+                    Employee updatedEmployee;
+                    try {
+                        updatedEmployee = employeeService.updateEmployee(savedEmployee);
+                    } catch (EmployeeVersionConflictException e) {
+                        if (expectedVersion == null) {
+                            throw e;
+                        }
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build();
+                    }
+                    return ResponseEntity.ok().eTag(etag(updatedEmployee.getVersion())).body(updatedEmployee);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PatchMapping("{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") long employeeId,
+                                              @RequestBody EmployeePatch patch,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long expectedVersion = ifMatchVersion(ifMatch);
+        if (expectedVersion == null) {
+            return employeeService.patchEmployee(employeeId, patch)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        }
+        try {
+            return employeeService.patchEmployee(employeeId,
+                    new EmployeePatch(patch.firstName(), patch.lastName(), patch.email(), expectedVersion))
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (EmployeeVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+
     @DeleteMapping("{id}")
-    public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId){
-        employeeService.deleteEmployee(employeeId);
-        return new ResponseEntity<String>("Employee deleted.", HttpStatus.OK);
+    public ResponseEntity<Void> deleteEmployee(@PathVariable("id") long employeeId,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long expectedVersion = ifMatchVersion(ifMatch);
+        if (expectedVersion == null) {
+            return employeeService.deleteEmployee(employeeId)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        }
+        try {
+            return employeeService.deleteEmployee(employeeId, expectedVersion)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (EmployeeVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<String> deleteEmployees(@RequestParam("ids") Set<Long> employeeIds){
+        if (employeeIds.size() > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_PAGE_SIZE + " ids can be deleted at once.");
+        }
+        // An empty element, as in ids=1,,2, binds as null.
+        if (employeeIds.contains(null)) {
+            return ResponseEntity.badRequest().body("ids must not contain empty values.");
+        }
+        int deleted = employeeService.deleteEmployees(employeeIds);
+        return new ResponseEntity<String>(deleted + " employees deleted.", HttpStatus.OK);
+    }
+
+    static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private String requestHash(Employee employee) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(employee)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private IdempotentResponse idempotentResponse(ResponseEntity<?> response) {
+        URI location = response.getHeaders().getLocation();
+        try {
+            return new IdempotentResponse(response.getStatusCode().value(),
+                    location == null ? null : location.toString(),
+                    response.getBody() == null ? null : objectMapper.writeValueAsString(response.getBody()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Returns null when there is no precondition (no header or "*"). Only a single strong ETag is
+    // understood; anything else maps to a version no employee can have, so the request gets 412.
+    // Shared with ReactiveEmployeeController.
+    static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        return -1L;
     }
 }
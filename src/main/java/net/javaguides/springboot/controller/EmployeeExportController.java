@@ -0,0 +1,160 @@
+package net.javaguides.springboot.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.service.EmployeeService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full-table export for batch consumers. Rows are read through the forward-only cursor behind
+ * {@link EmployeeService#streamAllEmployees} and written as they arrive, so memory use does
+ * not grow with the table. The body is gzipped when the client accepts it. The write runs as an
+ * async request, bounded by {@code spring.mvc.async.request-timeout} rather than the container's
+ * much shorter default.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/employees")
+public class EmployeeExportController {
+
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private static final String CSV_HEADER = "id,firstName,lastName,email,version";
+
+    private EmployeeService employeeService;
+
+    private ObjectMapper objectMapper;
+
+    public EmployeeExportController(EmployeeService employeeService, ObjectMapper objectMapper) {
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        MediaType contentType;
+        StreamingResponseBody body;
+        switch (format) {
+            case "csv" -> {
+                contentType = TEXT_CSV;
+                body = this::writeCsv;
+            }
+            case "ndjson" -> {
+                contentType = MediaType.APPLICATION_NDJSON;
+                body = this::writeNdjson;
+            }
+            default -> {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees." + format + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(body);
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(outputStream -> {
+                    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192)) {
+                        body.writeTo(gzipOutputStream);
+                    }
+                });
+    }
+
+    private void writeCsv(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        employeeService.streamAllEmployees(employee -> {
+            try {
+                writer.write(Long.toString(employee.getId()));
+                writer.write(',');
+                writer.write(csvField(employee.getFirstName()));
+                writer.write(',');
+                writer.write(csvField(employee.getLastName()));
+                writer.write(',');
+                writer.write(csvField(employee.getEmail()));
+                writer.write(',');
+                writer.write(Long.toString(employee.getVersion()));
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeNdjson(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        // Leave the servlet stream open; the gzip wrapper, if any, still has to finish.
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are terminated explicitly below instead of separated by Jackson's default space.
+        generator.setRootValueSeparator(null);
+        employeeService.streamAllEmployees(employee -> {
+            try {
+                generator.writeObject(employee);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.close();
+    }
+
+    // RFC 9110: a coding is acceptable unless its q-value is 0; "gzip;q=0" and "x-gzip" are not gzip.
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            return quality > 0;
+        }
+        return false;
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling inner quotes.
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
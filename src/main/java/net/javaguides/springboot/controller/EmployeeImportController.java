@@ -0,0 +1,49 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+import net.javaguides.springboot.service.EmployeeImportService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk import, the counterpart of {@link EmployeeExportController}. The request body is read
+ * as a stream rather than bound to an object, so uploads are never held in memory whole.
+ * Bodies sent with {@code Content-Encoding: gzip} are decompressed on the fly.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/employees")
+public class EmployeeImportController {
+
+    private EmployeeImportService importService;
+
+    public EmployeeImportController(EmployeeImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(value = "import", consumes = "text/csv")
+    public EmployeeImportSummary importCsv(InputStream body,
+                                           @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) throws IOException {
+        return importService.importCsv(reader(body, contentEncoding));
+    }
+
+    @PostMapping(value = "import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public EmployeeImportSummary importNdjson(InputStream body,
+                                              @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) throws IOException {
+        return importService.importNdjson(reader(body, contentEncoding));
+    }
+
+    private static Reader reader(InputStream body, String contentEncoding) throws IOException {
+        InputStream inputStream = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 8192) : body;
+        return new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,31 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.service.EmployeeSearchService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Type-ahead search over employee names and emails. Every whitespace or punctuation separated
+ * term of {@code q} must be a prefix of one of the employee's tokens, ignoring case and accents.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/employees")
+public class EmployeeSearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private EmployeeSearchService searchService;
+
+    public EmployeeSearchController(EmployeeSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping("search")
+    public EmployeeSearchPage searchEmployees(@RequestParam("q") String query,
+                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "limit", defaultValue = "20") int limit){
+        return searchService.search(query, cursor, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+}
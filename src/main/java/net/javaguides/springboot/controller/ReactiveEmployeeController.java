@@ -0,0 +1,73 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.exception.EmployeeVersionConflictException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/employees")
+public class ReactiveEmployeeController {
+
+    private ReactiveEmployeeService employeeService;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @GetMapping
+    public Flux<Employee> getAllEmployees(){
+        return employeeService.getAllEmployees();
+    }
+
+    // ETags and If-Match work as in EmployeeController, so clients can switch between the two APIs.
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long employeeId){
+        return employeeService.getEmployeeById(employeeId)
+                .map(employee -> ResponseEntity.ok().eTag(EmployeeController.etag(employee.getVersion())).body(employee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") long employeeId,
+                                                         @RequestBody Employee employee,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long expectedVersion = EmployeeController.ifMatchVersion(ifMatch);
+        Mono<Employee> updated = expectedVersion == null
+                ? employeeService.updateEmployee(employeeId, employee)
+                : employeeService.updateEmployee(employeeId, employee, expectedVersion);
+        return updated
+                .map(updatedEmployee -> ResponseEntity.ok().eTag(EmployeeController.etag(updatedEmployee.getVersion())).body(updatedEmployee))
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(EmployeeVersionConflictException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build()));
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<Void>> deleteEmployee(@PathVariable("id") long employeeId,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long expectedVersion = EmployeeController.ifMatchVersion(ifMatch);
+        Mono<Boolean> deleted = expectedVersion == null
+                ? employeeService.deleteEmployee(employeeId)
+                : employeeService.deleteEmployee(employeeId, expectedVersion);
+        return deleted
+                .map(found -> found
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build())
+                .onErrorResume(EmployeeVersionConflictException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Void>build()));
+    }
+}
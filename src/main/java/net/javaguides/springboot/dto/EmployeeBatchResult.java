@@ -0,0 +1,19 @@
+package net.javaguides.springboot.dto;
+
+import net.javaguides.springboot.model.Employee;
+
+public record EmployeeBatchResult(int index, Status status, Employee employee, String message) {
+
+    public enum Status {
+        CREATED,
+        CONFLICT
+    }
+
+    public static EmployeeBatchResult created(int index, Employee employee) {
+        return new EmployeeBatchResult(index, Status.CREATED, employee, null);
+    }
+
+    public static EmployeeBatchResult conflict(int index, Employee employee, String message) {
+        return new EmployeeBatchResult(index, Status.CONFLICT, employee, message);
+    }
+}
@@ -0,0 +1,11 @@
+package net.javaguides.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+
+/**
+ * One entry of the change feed. {@code employee} is the outbox's stored JSON, passed through
+ * as is; it is null for deletes.
+ */
+public record EmployeeChange(long position, EmployeeChangedEvent.Type type, long id, @JsonRawValue String employee) {
+}
@@ -0,0 +1,7 @@
+package net.javaguides.springboot.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record EmployeeFieldsPage(List<Map<String, Object>> content, Long nextCursor) {
+}
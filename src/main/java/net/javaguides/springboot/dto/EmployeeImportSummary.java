@@ -0,0 +1,13 @@
+package net.javaguides.springboot.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} lists the first rejected rows, by 1-based data row
+ * number, and is capped, while the counts cover the whole input.
+ */
+public record EmployeeImportSummary(long inserted, long duplicates, long invalid, List<RowError> errors) {
+
+    public record RowError(long row, String message) {
+    }
+}
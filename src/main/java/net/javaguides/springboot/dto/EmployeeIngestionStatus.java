@@ -0,0 +1,29 @@
+package net.javaguides.springboot.dto;
+
+import java.util.UUID;
+
+public record EmployeeIngestionStatus(UUID trackingId, State state, Long employeeId, String message) {
+
+    public enum State {
+        QUEUED,
+        CREATED,
+        CONFLICT,
+        FAILED
+    }
+
+    public static EmployeeIngestionStatus queued(UUID trackingId) {
+        return new EmployeeIngestionStatus(trackingId, State.QUEUED, null, null);
+    }
+
+    public static EmployeeIngestionStatus created(UUID trackingId, long employeeId) {
+        return new EmployeeIngestionStatus(trackingId, State.CREATED, employeeId, null);
+    }
+
+    public static EmployeeIngestionStatus conflict(UUID trackingId, String message) {
+        return new EmployeeIngestionStatus(trackingId, State.CONFLICT, null, message);
+    }
+
+    public static EmployeeIngestionStatus failed(UUID trackingId, String message) {
+        return new EmployeeIngestionStatus(trackingId, State.FAILED, null, message);
+    }
+}
@@ -0,0 +1,19 @@
+package net.javaguides.springboot.dto;
+
+import net.javaguides.springboot.model.Employee;
+
+public record EmployeeLookupResult(long id, Status status, Employee employee) {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+
+    public static EmployeeLookupResult found(Employee employee) {
+        return new EmployeeLookupResult(employee.getId(), Status.FOUND, employee);
+    }
+
+    public static EmployeeLookupResult notFound(long id) {
+        return new EmployeeLookupResult(id, Status.NOT_FOUND, null);
+    }
+}
@@ -0,0 +1,4 @@
+package net.javaguides.springboot.dto;
+
+public record EmployeePatch(String firstName, String lastName, String email, Long version) {
+}
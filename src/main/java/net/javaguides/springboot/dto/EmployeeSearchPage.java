@@ -0,0 +1,8 @@
+package net.javaguides.springboot.dto;
+
+import net.javaguides.springboot.model.Employee;
+
+import java.util.List;
+
+public record EmployeeSearchPage(List<Employee> content, String nextCursor) {
+}
@@ -0,0 +1,8 @@
+package net.javaguides.springboot.dto;
+
+import net.javaguides.springboot.model.Employee;
+
+import java.util.List;
+
+public record EmployeeSlice(List<Employee> content, int page, int size, boolean hasNext) {
+}
@@ -0,0 +1,13 @@
+package net.javaguides.springboot.dto;
+
+/**
+ * What a store holds for one Idempotency-Key. {@code response} is null while the first request
+ * is still in flight.
+ */
+public record IdempotencyRecord(String requestHash, IdempotentResponse response) {
+
+    // Flat form for JPQL constructor expressions.
+    public IdempotencyRecord(String requestHash, Integer status, String location, String body) {
+        this(requestHash, status == null ? null : new IdempotentResponse(status, location, body));
+    }
+}
@@ -0,0 +1,8 @@
+package net.javaguides.springboot.dto;
+
+/**
+ * A response recorded under an Idempotency-Key: status, Location header (may be null) and the
+ * JSON body as it was first sent.
+ */
+public record IdempotentResponse(int status, String location, String body) {
+}
@@ -0,0 +1,31 @@
+package net.javaguides.springboot.event;
+
+import net.javaguides.springboot.model.Employee;
+
+/**
+ * Published by the employee service inside the transaction of every write; listeners pick the
+ * phase they need. {@code employee} holds the persisted state, or is null when only the id is
+ * known (deletes and bulk patches).
+ */
+public record EmployeeChangedEvent(Type type, long id, Employee employee) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static EmployeeChangedEvent created(Employee employee) {
+        return new EmployeeChangedEvent(Type.CREATED, employee.getId(), employee);
+    }
+
+    public static EmployeeChangedEvent updated(Employee employee) {
+        return new EmployeeChangedEvent(Type.UPDATED, employee.getId(), employee);
+    }
+
+    public static EmployeeChangedEvent patched(long id) {
+        return new EmployeeChangedEvent(Type.UPDATED, id, null);
+    }
+
+    public static EmployeeChangedEvent deleted(long id) {
+        return new EmployeeChangedEvent(Type.DELETED, id, null);
+    }
+}
@@ -0,0 +1,16 @@
+package net.javaguides.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateEmailException extends RuntimeException{
+
+    public DuplicateEmailException(String message){
+        super(message);
+    }
+
+    public DuplicateEmailException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
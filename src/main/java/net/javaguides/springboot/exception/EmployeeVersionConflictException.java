@@ -0,0 +1,16 @@
+package net.javaguides.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class EmployeeVersionConflictException extends RuntimeException{
+
+    public EmployeeVersionConflictException(String message){
+        super(message);
+    }
+
+    public EmployeeVersionConflictException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
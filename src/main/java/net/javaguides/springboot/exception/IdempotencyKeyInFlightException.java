@@ -0,0 +1,12 @@
+package net.javaguides.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInFlightException extends RuntimeException{
+
+    public IdempotencyKeyInFlightException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package net.javaguides.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownEmployeeFieldException extends RuntimeException{
+
+    public UnknownEmployeeFieldException(String message){
+        super(message);
+    }
+}
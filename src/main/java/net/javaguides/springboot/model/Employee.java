@@ -9,11 +9,17 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+@Table(name = "employees", indexes = {
+        @Index(name = Employee.EMAIL_INDEX, columnList = "email", unique = true),
+        @Index(name = "idx_employees_last_first", columnList = "last_name, first_name")
+})
 public class Employee {
 
+    public static final String EMAIL_INDEX = "uk_employees_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "first_name", nullable = false)
@@ -24,4 +30,7 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    @Version
+    private long version;
 }
@@ -0,0 +1,43 @@
+package net.javaguides.springboot.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+
+import java.time.Instant;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employee_outbox", indexes = {
+        @Index(name = "uk_employee_outbox_position", columnList = "feed_position", unique = true),
+        @Index(name = "idx_employee_outbox_created_at", columnList = "created_at")
+})
+public class EmployeeOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_outbox_seq")
+    @SequenceGenerator(name = "employee_outbox_seq", sequenceName = "employee_outbox_seq", allocationSize = 50)
+    private long id;
+
+    // Null until the relay publishes the event; then its place in the change feed.
+    @Column(name = "feed_position")
+    private Long position;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmployeeChangedEvent.Type type;
+
+    @Column(name = "employee_id", nullable = false)
+    private long employeeId;
+
+    // The employee as JSON, or null for deletes.
+    @Lob
+    private String employee;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
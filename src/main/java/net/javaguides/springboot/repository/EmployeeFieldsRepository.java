@@ -0,0 +1,18 @@
+package net.javaguides.springboot.repository;
+
+import java.util.List;
+import java.util.Map;
+
+public interface EmployeeFieldsRepository {
+
+    /**
+     * Selects only the given {@code Employee} attributes, ordered by id. Rows come back as
+     * tuples keyed by attribute name, so no entities are loaded or tracked.
+     */
+    List<Map<String, Object>> findAllFields(List<String> fields);
+
+    /**
+     * Like {@link #findAllFields}, for at most {@code limit} rows with an id above {@code afterId}.
+     */
+    List<Map<String, Object>> findFieldsAfter(List<String> fields, long afterId, int limit);
+}
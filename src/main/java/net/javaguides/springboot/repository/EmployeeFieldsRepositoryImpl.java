@@ -0,0 +1,55 @@
+package net.javaguides.springboot.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import net.javaguides.springboot.model.Employee;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class EmployeeFieldsRepositoryImpl implements EmployeeFieldsRepository {
+
+    private EntityManager entityManager;
+
+    EmployeeFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllFields(List<String> fields) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        query.multiselect(fields.stream().<Selection<?>>map(field -> employee.get(field).alias(field)).toList())
+                .orderBy(criteriaBuilder.asc(employee.get("id")));
+
+        return toRows(entityManager.createQuery(query).getResultList(), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsAfter(List<String> fields, long afterId, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        query.multiselect(fields.stream().<Selection<?>>map(field -> employee.get(field).alias(field)).toList())
+                .where(criteriaBuilder.greaterThan(employee.get("id"), afterId))
+                .orderBy(criteriaBuilder.asc(employee.get("id")));
+
+        return toRows(entityManager.createQuery(query).setMaxResults(limit).getResultList(), fields);
+    }
+
+    private static List<Map<String, Object>> toRows(List<Tuple> tuples, List<String> fields) {
+        return tuples.stream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    fields.forEach(field -> row.put(field, tuple.get(field)));
+                    return row;
+                })
+                .toList();
+    }
+}
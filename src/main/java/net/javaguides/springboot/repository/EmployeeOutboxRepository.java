@@ -0,0 +1,34 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.model.EmployeeOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface EmployeeOutboxRepository extends JpaRepository<EmployeeOutboxEvent, Long> {
+
+    List<EmployeeOutboxEvent> findByPositionIsNullOrderByIdAsc(Pageable pageable);
+
+    List<EmployeeOutboxEvent> findByPositionGreaterThanOrderByPositionAsc(long position, Pageable pageable);
+
+    @Query("SELECT MAX(e.position) FROM EmployeeOutboxEvent e")
+    Optional<Long> findMaxPosition();
+
+    // Grows by one with every committed change and never goes back: giving an event its position moves
+    // it from the pending count into the maximum, and the purge always keeps the maximum.
+    @Query("SELECT COALESCE(MAX(e.position), 0) + " +
+            "(SELECT COUNT(p) FROM EmployeeOutboxEvent p WHERE p.position IS NULL) FROM EmployeeOutboxEvent e")
+    long countChanges();
+
+    // Rows at or past keepFrom survive however old they are; the caller keeps the highest position so
+    // positions carry on from it. MySQL cannot delete from a table its own subquery reads, hence the parameter.
+    @Modifying
+    @Query("DELETE FROM EmployeeOutboxEvent e WHERE e.position < :keepFrom AND e.createdAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before, @Param("keepFrom") long keepFrom);
+}
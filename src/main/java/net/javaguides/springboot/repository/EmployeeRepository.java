@@ -1,16 +1,50 @@
 package net.javaguides.springboot.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import net.javaguides.springboot.model.Employee;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeFieldsRepository {
+
+    // Not read-only, so these lookups go to the primary even when read replicas are configured:
+    // their rows fill the employees cache and are read right after change events, and a lagging
+    // replica would hand back the row as it was before the write.
+    @Override
+    @Transactional
+    Optional<Employee> findById(Long id);
+
+    @Override
+    @Transactional
+    List<Employee> findAllById(Iterable<Long> ids);
 
     Optional<Employee> findByEmail(String email);
 
+    @Query("SELECT e.version FROM Employee e WHERE e.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    List<Employee> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Employee> streamAllByOrderByIdAsc();
+
     @Query("SELECT e FROM Employee e WHERE e.firstName = ?1 AND e.lastName = ?2")
     Employee findByJPQLWithIndexParams(String firstName, String lastName);
 
@@ -28,4 +62,46 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
             "AND e.last_name = :lastName", nativeQuery = true)
     Employee findByNativeSQLWithNamedParams(@Param("firstName")String firstName,
                                             @Param("lastName") String lastName);
+
+    @Query("SELECT e FROM Employee e WHERE e.lastName = :lastName AND e.firstName = :firstName")
+    Slice<Employee> findByName(@Param("firstName") String firstName,
+                               @Param("lastName") String lastName,
+                               Pageable pageable);
+
+    @Query("SELECT e FROM Employee e WHERE e.lastName = :lastName")
+    Slice<Employee> findByLastName(@Param("lastName") String lastName, Pageable pageable);
+
+    /**
+     * Single-statement partial update. Null arguments leave the column unchanged; a non-null
+     * version makes the update conditional on it. Returns the number of updated rows.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET " +
+            "e.firstName = COALESCE(:firstName, e.firstName), " +
+            "e.lastName = COALESCE(:lastName, e.lastName), " +
+            "e.email = COALESCE(:email, e.email), " +
+            "e.version = e.version + 1 " +
+            "WHERE e.id = :id AND (:version IS NULL OR e.version = :version)")
+    int patch(@Param("id") long id,
+              @Param("firstName") String firstName,
+              @Param("lastName") String lastName,
+              @Param("email") String email,
+              @Param("version") Long version);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Employee e WHERE e.id = :id")
+    int deleteEmployeeById(@Param("id") long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Employee e WHERE e.id = :id AND e.version = :version")
+    int deleteEmployeeByIdAndVersion(@Param("id") long id, @Param("version") long version);
+
+    // Locks the rows, so a delete that follows in the same transaction removes exactly these.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :ids")
+    List<Long> findIdsForDelete(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Employee e WHERE e.id IN :ids")
+    int deleteEmployeesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,59 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.dto.IdempotencyRecord;
+import net.javaguides.springboot.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Every write commits on its own: a failed insert must not mark a caller's transaction
+ * rollback-only, and a response must be visible to waiting duplicates as soon as it is recorded.
+ */
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // A plain INSERT, so the primary key arbitrates between concurrent requests (save() would merge).
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, reserved_until) " +
+            "VALUES (:key, :requestHash, :createdAt, :reservedUntil)", nativeQuery = true)
+    int insert(@Param("key") String key, @Param("requestHash") String requestHash, @Param("createdAt") Instant createdAt,
+               @Param("reservedUntil") Instant reservedUntil);
+
+    // A DTO projection always reads the row again; a managed entity would not see other transactions' updates.
+    // An in-flight row whose lease ran out reads as absent, so a retry can take the key over.
+    @Query("SELECT new net.javaguides.springboot.dto.IdempotencyRecord(k.requestHash, k.responseStatus, " +
+            "k.responseLocation, k.responseBody) FROM IdempotencyKey k WHERE k.key = :key AND k.createdAt >= :notBefore " +
+            "AND (k.responseStatus IS NOT NULL OR k.reservedUntil >= :now)")
+    Optional<IdempotencyRecord> findRecord(@Param("key") String key, @Param("notBefore") Instant notBefore,
+                                           @Param("now") Instant now);
+
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE IdempotencyKey k SET k.responseStatus = :status, k.responseLocation = :location, " +
+            "k.responseBody = :body WHERE k.key = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("location") String location,
+                 @Param("body") String body);
+
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("DELETE FROM IdempotencyKey k WHERE k.key = :key AND k.responseStatus IS NULL")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("DELETE FROM IdempotencyKey k WHERE k.key = :key AND (k.createdAt < :notBefore " +
+            "OR k.responseStatus IS NULL AND k.reservedUntil < :now)")
+    int deleteExpired(@Param("key") String key, @Param("notBefore") Instant notBefore, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :notBefore")
+    int deleteAllExpired(@Param("notBefore") Instant notBefore);
+}
@@ -0,0 +1,12 @@
+package net.javaguides.springboot.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface EmployeeChangeFeed {
+
+    /**
+     * Streams committed employee changes as server-sent events whose id is the change's feed
+     * position. Starts after {@code lastEventId}, or with the next change when it is null.
+     */
+    SseEmitter subscribe(Long lastEventId);
+}
@@ -0,0 +1,23 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Creates employees from a CSV or NDJSON document read incrementally. Rows are committed in
+ * chunks, so an import that fails midway keeps the chunks already written.
+ */
+public interface EmployeeImportService {
+
+    /**
+     * Imports CSV with a header row naming at least the firstName, lastName and email columns.
+     */
+    EmployeeImportSummary importCsv(Reader reader) throws IOException;
+
+    /**
+     * Imports one JSON employee object per line.
+     */
+    EmployeeImportSummary importNdjson(Reader reader) throws IOException;
+}
@@ -0,0 +1,25 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.EmployeeIngestionStatus;
+import net.javaguides.springboot.model.Employee;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Write-behind creation of employees: payloads are queued in memory and inserted in batches
+ * by a background writer. Enabled with {@code employee.ingestion.enabled=true}.
+ */
+public interface EmployeeIngestionService {
+
+    boolean isEnabled();
+
+    /**
+     * Validates and enqueues an employee.
+     *
+     * @return the tracking id, or empty when the queue is full or shutting down
+     */
+    Optional<UUID> submit(Employee employee);
+
+    Optional<EmployeeIngestionStatus> getStatus(UUID trackingId);
+}
@@ -0,0 +1,13 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+
+public interface EmployeeSearchService {
+
+    /**
+     * Employees with a name or email token starting with every term of the query. Pass the
+     * previous page's {@code nextCursor} to continue; a null {@code nextCursor} means there is
+     * nothing left.
+     */
+    EmployeeSearchPage search(String query, String cursor, int limit);
+}
@@ -1,15 +1,36 @@
 package net.javaguides.springboot.service;
 
+import net.javaguides.springboot.dto.EmployeeBatchResult;
+import net.javaguides.springboot.dto.EmployeeFieldsPage;
+import net.javaguides.springboot.dto.EmployeeLookupResult;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeePatch;
+import net.javaguides.springboot.dto.EmployeeSlice;
 import net.javaguides.springboot.model.Employee;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     Employee saveEmployee(Employee employee);
+    List<EmployeeBatchResult> saveAll(List<Employee> employees);
     List<Employee> getAllEmployees();
+    List<Map<String, Object>> getAllEmployeeFields(List<String> fields);
+    EmployeePage getEmployeesAfter(long afterId, int limit);
+    EmployeeFieldsPage getEmployeeFieldsAfter(List<String> fields, long afterId, int limit);
+    void streamAllEmployees(Consumer<Employee> consumer);
+    EmployeeSlice findEmployeesByName(String firstName, String lastName, int page, int size);
     Optional<Employee> getEmployeeById(long id);
+    List<EmployeeLookupResult> getEmployeesByIds(List<Long> ids);
+    Optional<Long> getEmployeeVersion(long id);
+    long getEmployeesVersion();
     Employee updateEmployee(Employee updatedEmployee);
-    void deleteEmployee(long id);
+    boolean patchEmployee(long id, EmployeePatch patch);
+    boolean deleteEmployee(long id);
+    boolean deleteEmployee(long id, long version);
+    int deleteEmployees(Collection<Long> ids);
 }
@@ -0,0 +1,15 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.IdempotentResponse;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs request at most once per key. Later calls with the same key and request hash get
+     * the recorded response, waiting while the first call is still in flight. Only 2xx
+     * responses are recorded; any other outcome frees the key for a retry.
+     */
+    IdempotentResponse execute(String key, String requestHash, Supplier<IdempotentResponse> request);
+}
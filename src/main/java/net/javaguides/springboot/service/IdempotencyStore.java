@@ -0,0 +1,34 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.IdempotencyRecord;
+import net.javaguides.springboot.dto.IdempotentResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, expiring storage of Idempotency-Key records. Selected with
+ * {@code employee.idempotency.store}: {@code memory} (default, per instance) or {@code jpa}
+ * (shared through the idempotency_keys table).
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Takes the key for a new request. On true the caller owns it and must call
+     * {@link #complete} or {@link #release}; on false another request already holds it.
+     */
+    boolean reserve(String key, String requestHash);
+
+    /** The record for key, or empty when it was released or has expired. */
+    Optional<IdempotencyRecord> find(String key);
+
+    /**
+     * Like {@link #find}, but waits up to timeout for an in-flight request to complete or
+     * release the key.
+     */
+    Optional<IdempotencyRecord> await(String key, Duration timeout) throws InterruptedException;
+
+    void complete(String key, IdempotentResponse response);
+
+    void release(String key);
+}
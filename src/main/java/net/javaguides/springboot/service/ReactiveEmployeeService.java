@@ -0,0 +1,16 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeService {
+
+    Mono<Employee> saveEmployee(Employee employee);
+    Flux<Employee> getAllEmployees();
+    Mono<Employee> getEmployeeById(long id);
+    Mono<Employee> updateEmployee(long id, Employee updatedEmployee);
+    Mono<Employee> updateEmployee(long id, Employee updatedEmployee, long version);
+    Mono<Boolean> deleteEmployee(long id);
+    Mono<Boolean> deleteEmployee(long id, long version);
+}
@@ -0,0 +1,83 @@
+package net.javaguides.springboot.service.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time, so a file of any size is parsed in constant memory.
+ * Quoted fields may contain separators, doubled quotes and line breaks.
+ */
+final class CsvRecordReader {
+
+    private static final int NONE = -2;
+
+    private final Reader reader;
+
+    private int lookahead = NONE;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the fields of the next record, or null at the end of the input. A blank line is
+     * returned as a single empty field.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) {
+                    // Unterminated quote: keep what was read rather than losing the record.
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        lookahead = next;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        lookahead = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (lookahead != NONE) {
+            int c = lookahead;
+            lookahead = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+}
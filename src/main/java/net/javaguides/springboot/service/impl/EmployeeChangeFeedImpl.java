@@ -0,0 +1,396 @@
+package net.javaguides.springboot.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.config.MetricsConfig;
+import net.javaguides.springboot.dto.EmployeeChange;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.model.EmployeeOutboxEvent;
+import net.javaguides.springboot.repository.EmployeeOutboxRepository;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox behind {@code GET /api/employees/changes}. Every {@link EmployeeChangedEvent}
+ * is written to {@code employee_outbox} just before its transaction commits, so a change and its
+ * event commit or roll back together. A single relay thread then gives committed events
+ * consecutive feed positions and hands them to subscribers, one batch at a time each. Sender
+ * threads write the batches out, so a slow client only holds up itself; one that makes no
+ * progress for {@code stall-timeout} is disconnected.
+ *
+ * <p>Subscribers are always served from the table, grouped by how far they have read, so a
+ * reconnecting client catches up with the same queries that feed live ones. Several instances
+ * can share the table: the unique position index makes a relay that raced another retry on its
+ * next round. Published events are kept for {@code retention}, except the latest one, which
+ * carries the position numbering forward. A client resuming from before what is left, or from
+ * a position this feed never reached, gets a {@code reset} event and should reload the collection.
+ */
+@Service
+@Profile("!reactive")
+public class EmployeeChangeFeedImpl implements EmployeeChangeFeed, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeChangeFeedImpl.class);
+
+    private static final Duration FAILURE_LOG_INTERVAL = Duration.ofMinutes(1);
+
+    private EmployeeOutboxRepository outboxRepository;
+
+    private EmployeeRepository employeeRepository;
+
+    private ObjectMapper objectMapper;
+
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Duration pollInterval;
+
+    private int batchSize;
+
+    private Duration retention;
+
+    private Duration emitterTimeout;
+
+    private Duration purgeInterval;
+
+    private Duration stallTimeout;
+
+    private Clock clock = Clock.systemUTC();
+
+    private Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private Semaphore wakeUp = new Semaphore(0);
+
+    // Highest position the relay has seen committed; new subscribers start here.
+    private volatile long head;
+
+    private Instant nextPurge = Instant.MIN;
+
+    // Relay thread only.
+    private Instant nextFailureLog = Instant.MIN;
+
+    private int unloggedFailures;
+
+    private volatile boolean running;
+
+    private Thread relay;
+
+    private ExecutorService senders;
+
+    public EmployeeChangeFeedImpl(EmployeeOutboxRepository outboxRepository, EmployeeRepository employeeRepository,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${employee.changes.poll-interval:1s}") Duration pollInterval,
+                                  @Value("${employee.changes.batch-size:500}") int batchSize,
+                                  @Value("${employee.changes.retention:7d}") Duration retention,
+                                  @Value("${employee.changes.emitter-timeout:30m}") Duration emitterTimeout,
+                                  @Value("${employee.changes.purge-interval:1h}") Duration purgeInterval,
+                                  @Value("${employee.changes.stall-timeout:30s}") Duration stallTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.employeeRepository = employeeRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.emitterTimeout = emitterTimeout;
+        this.purgeInterval = purgeInterval;
+        this.stallTimeout = stallTimeout;
+    }
+
+    @Override
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, lastEventId != null ? lastEventId : head);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        try {
+            // Commits the response headers now; otherwise the client waits for the first change.
+            emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        subscribers.add(subscriber);
+        wakeUp.release();
+        return emitter;
+    }
+
+    // Runs inside the writer's transaction; without one (fallback) the row commits on its own.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void writeOutbox(EmployeeChangedEvent event) {
+        Employee employee = event.employee();
+        if (employee == null && event.type() != EmployeeChangedEvent.Type.DELETED) {
+            employee = employeeRepository.findById(event.id()).orElse(null);
+        }
+        outboxRepository.save(EmployeeOutboxEvent.builder()
+                .type(event.type())
+                .employeeId(event.id())
+                .employee(employee == null ? null : toJson(employee))
+                .createdAt(clock.instant())
+                .build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        wakeUp.release();
+    }
+
+    @Override
+    public void start() {
+        head = outboxRepository.findMaxPosition().orElse(0L);
+        running = true;
+        senders = Executors.newCachedThreadPool(task -> {
+            Thread sender = new Thread(task, "employee-change-sender");
+            sender.setDaemon(true);
+            return sender;
+        });
+        relay = new Thread(this::relay, "employee-change-relay");
+        relay.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        relay.interrupt();
+        try {
+            relay.join(pollInterval.toMillis() + 5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        senders.shutdown();
+    }
+
+    // Published before any lifecycle stops; open streams would otherwise hold a graceful shutdown until they time out.
+    @EventListener(ContextClosedEvent.class)
+    public void completeSubscribers() {
+        subscribers.forEach(this::disconnect);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Know the current head before the web server accepts the first subscriber.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void relay() {
+        while (running) {
+            try {
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+                // Both steps work in batches; go round again straight away while either is behind.
+                boolean behind = assignPositions();
+                behind |= deliver();
+                purgeIfDue();
+                if (behind) {
+                    wakeUp.release();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Lost a position race to another instance, or the database is unavailable; retry next round.
+                relayFailed(e);
+            }
+        }
+    }
+
+    // Every failure is counted, but an outage logs once per interval rather than once per round.
+    private void relayFailed(RuntimeException e) {
+        meterRegistry.counter(MetricsConfig.CHANGE_RELAY_FAILURES, "exception", e.getClass().getSimpleName()).increment();
+        Instant now = clock.instant();
+        if (now.isBefore(nextFailureLog)) {
+            unloggedFailures++;
+            return;
+        }
+        nextFailureLog = now.plus(FAILURE_LOG_INTERVAL);
+        log.warn("Change feed relay round failed, retrying ({} more failures since the last report)", unloggedFailures, e);
+        unloggedFailures = 0;
+    }
+
+    // Positions are handed out in commit-visibility order, so a reader never sees a gap fill in later.
+    private boolean assignPositions() {
+        Assignment assignment = transactionTemplate.execute(status -> {
+            long position = outboxRepository.findMaxPosition().orElse(0L);
+            List<EmployeeOutboxEvent> pending = outboxRepository.findByPositionIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+            for (EmployeeOutboxEvent event : pending) {
+                event.setPosition(++position);
+            }
+            return new Assignment(position, pending.size() == batchSize);
+        });
+        head = Math.max(head, assignment.head());
+        return assignment.more();
+    }
+
+    // Only subscribers that have sent everything they were given get more; the rest catch up from the table later.
+    private boolean deliver() {
+        boolean behind = false;
+        long current = head;
+        long now = System.nanoTime();
+        subscribers.stream().filter(subscriber -> subscriber.stalled(now)).forEach(this::disconnect);
+        Map<Long, List<Subscriber>> byCursor = subscribers.stream()
+                .filter(subscriber -> subscriber.cursor != current && !subscriber.busy())
+                .collect(Collectors.groupingBy(subscriber -> subscriber.cursor));
+        for (Map.Entry<Long, List<Subscriber>> group : byCursor.entrySet()) {
+            long cursor = group.getKey();
+            if (cursor > current) {
+                // A position from another feed, or from before the table was emptied: start over at the head.
+                for (Subscriber subscriber : group.getValue()) {
+                    subscriber.offer(current, List.of());
+                }
+                continue;
+            }
+            List<EmployeeOutboxEvent> events = outboxRepository.findByPositionGreaterThanOrderByPositionAsc(cursor,
+                    PageRequest.of(0, batchSize));
+            behind |= events.size() == batchSize;
+            // Events after the cursor were purged: tell the client to reload, then go on from what is left.
+            Long reset = events.isEmpty() ? Long.valueOf(current)
+                    : events.get(0).getPosition() > cursor + 1 ? Long.valueOf(events.get(0).getPosition() - 1) : null;
+            List<Sent> batch = new ArrayList<>(events.size());
+            for (EmployeeOutboxEvent event : events) {
+                batch.add(new Sent(event.getPosition(), toJson(new EmployeeChange(event.getPosition(), event.getType(),
+                        event.getEmployeeId(), event.getEmployee()))));
+            }
+            for (Subscriber subscriber : group.getValue()) {
+                subscriber.offer(reset, batch);
+            }
+        }
+        return behind;
+    }
+
+    // complete() waits for a send in progress, which for a stalled client can take until the write times out.
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            senders.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private void purgeIfDue() {
+        Instant now = clock.instant();
+        if (now.isBefore(nextPurge)) {
+            return;
+        }
+        nextPurge = now.plus(purgeInterval);
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.findMaxPosition()
+                .ifPresent(max -> outboxRepository.deletePublishedBefore(now.minus(retention), max)));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Assignment(long head, boolean more) {
+    }
+
+    private record Sent(long position, String json) {
+    }
+
+    private record Frame(String name, long position, String data) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // Last position handed to the sender; the relay thread's alone.
+        private long cursor;
+
+        private final Queue<Frame> pending = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private volatile long lastProgress = System.nanoTime();
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        boolean busy() {
+            return sending.get();
+        }
+
+        boolean stalled(long now) {
+            return busy() && now - lastProgress > stallTimeout.toNanos();
+        }
+
+        void offer(Long reset, List<Sent> batch) {
+            if (reset != null) {
+                // EventSource drops events without data.
+                pending.add(new Frame("reset", reset, Long.toString(reset)));
+                cursor = reset;
+            }
+            for (Sent sent : batch) {
+                pending.add(new Frame(null, sent.position(), sent.json()));
+                cursor = sent.position();
+            }
+            lastProgress = System.nanoTime();
+            sending.set(true);
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                for (Frame frame = pending.poll(); frame != null; frame = pending.poll()) {
+                    SseEmitter.SseEventBuilder event = SseEmitter.event().id(Long.toString(frame.position()));
+                    if (frame.name() != null) {
+                        event.name(frame.name());
+                    }
+                    emitter.send(event.data(frame.data()));
+                    lastProgress = System.nanoTime();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter timed out.
+                subscribers.remove(this);
+                pending.clear();
+            } finally {
+                sending.set(false);
+            }
+            // Ready for the next batch.
+            wakeUp.release();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package net.javaguides.springboot.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.EmployeeBatchResult;
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+import net.javaguides.springboot.exception.DuplicateEmailException;
+import net.javaguides.springboot.exception.InvalidEmployeeException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeImportService;
+import net.javaguides.springboot.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private EmployeeService employeeService;
+
+    private ObjectMapper objectMapper;
+
+    private int chunkSize;
+
+    public EmployeeImportServiceImpl(EmployeeService employeeService, ObjectMapper objectMapper,
+                                     @Value("${employee.import.chunk-size:1000}") int chunkSize) {
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public EmployeeImportSummary importCsv(Reader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return new Import().finish();
+        }
+        int firstName = header.indexOf("firstName");
+        int lastName = header.indexOf("lastName");
+        int email = header.indexOf("email");
+        if (firstName < 0 || lastName < 0 || email < 0) {
+            throw new InvalidEmployeeException("CSV header must name the firstName, lastName and email columns");
+        }
+
+        Import run = new Import();
+        long row = 0;
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            row++;
+            if (record.size() != header.size()) {
+                run.invalid(row, "Expected " + header.size() + " columns but found " + record.size());
+                continue;
+            }
+            run.add(row, Employee.builder()
+                    .firstName(record.get(firstName))
+                    .lastName(record.get(lastName))
+                    .email(record.get(email))
+                    .build());
+        }
+        return run.finish();
+    }
+
+    @Override
+    public EmployeeImportSummary importNdjson(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        Import run = new Import();
+        long row = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            Employee parsed;
+            try {
+                parsed = objectMapper.readValue(line, Employee.class);
+            } catch (JsonProcessingException e) {
+                run.invalid(row, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            // Ids and versions in the file are ignored; new rows take theirs from the sequence.
+            run.add(row, Employee.builder()
+                    .firstName(parsed.getFirstName())
+                    .lastName(parsed.getLastName())
+                    .email(parsed.getEmail())
+                    .build());
+        }
+        return run.finish();
+    }
+
+    private class Import {
+
+        private final List<Employee> chunk = new ArrayList<>(chunkSize);
+
+        private final List<Long> chunkRows = new ArrayList<>(chunkSize);
+
+        private final List<EmployeeImportSummary.RowError> errors = new ArrayList<>();
+
+        private long inserted;
+
+        private long duplicates;
+
+        private long invalid;
+
+        void add(long row, Employee employee) {
+            String error = EmployeeValidation.validate(employee);
+            if (error != null) {
+                invalid(row, error);
+                return;
+            }
+            chunk.add(employee);
+            chunkRows.add(row);
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        void invalid(long row, String message) {
+            invalid++;
+            error(row, message);
+        }
+
+        EmployeeImportSummary finish() {
+            flush();
+            return new EmployeeImportSummary(inserted, duplicates, invalid, List.copyOf(errors));
+        }
+
+        // One saveAll per chunk: a single IN lookup for duplicates, JDBC batched inserts, one commit.
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            for (EmployeeBatchResult result : saveChunk()) {
+                if (result.status() == EmployeeBatchResult.Status.CREATED) {
+                    inserted++;
+                } else {
+                    duplicates++;
+                    error(chunkRows.get(result.index()), result.message());
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+
+        private List<EmployeeBatchResult> saveChunk() {
+            try {
+                return employeeService.saveAll(chunk);
+            } catch (DuplicateEmailException e) {
+                // A concurrent writer took an email after the lookup; the retry's lookup sees it.
+                resetIds();
+            }
+            try {
+                return employeeService.saveAll(chunk);
+            } catch (DuplicateEmailException e) {
+                // Still racing other writers: go row by row, so a conflict only costs its own row.
+                resetIds();
+                return saveOneByOne();
+            }
+        }
+
+        private List<EmployeeBatchResult> saveOneByOne() {
+            List<EmployeeBatchResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Employee employee = chunk.get(i);
+                try {
+                    results.add(EmployeeBatchResult.created(i, employeeService.saveEmployee(employee)));
+                } catch (DuplicateEmailException e) {
+                    results.add(EmployeeBatchResult.conflict(i, employee, e.getMessage()));
+                }
+            }
+            return results;
+        }
+
+        // The rolled-back attempt already drew ids, which would make the rows look detached.
+        private void resetIds() {
+            chunk.forEach(employee -> employee.setId(0));
+        }
+
+        private void error(long row, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new EmployeeImportSummary.RowError(row, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package net.javaguides.springboot.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.javaguides.springboot.dto.EmployeeBatchResult;
+import net.javaguides.springboot.dto.EmployeeIngestionStatus;
+import net.javaguides.springboot.exception.DuplicateEmailException;
+import net.javaguides.springboot.exception.InvalidEmployeeException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeIngestionService;
+import net.javaguides.springboot.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class EmployeeIngestionServiceImpl implements EmployeeIngestionService, SmartLifecycle {
+
+    private static final long POLL_MILLIS = 100;
+
+    private EmployeeService employeeService;
+
+    private boolean enabled;
+
+    private int batchSize;
+
+    private Duration shutdownTimeout;
+
+    private BlockingQueue<Submission> queue;
+
+    // Bounded so tracking ids nobody asks about again do not pile up.
+    private Cache<UUID, EmployeeIngestionStatus> statuses = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public EmployeeIngestionServiceImpl(EmployeeService employeeService,
+                                        @Value("${employee.ingestion.enabled:false}") boolean enabled,
+                                        @Value("${employee.ingestion.queue-capacity:10000}") int queueCapacity,
+                                        @Value("${employee.ingestion.batch-size:500}") int batchSize,
+                                        @Value("${employee.ingestion.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.employeeService = employeeService;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Optional<UUID> submit(Employee employee) {
+        validate(employee);
+        UUID trackingId = UUID.randomUUID();
+        statuses.put(trackingId, EmployeeIngestionStatus.queued(trackingId));
+        // Checked under the same lock stop() takes, so nothing is enqueued after the final drain starts.
+        synchronized (this) {
+            if (running && queue.offer(new Submission(trackingId, employee))) {
+                return Optional.of(trackingId);
+            }
+        }
+        statuses.invalidate(trackingId);
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<EmployeeIngestionStatus> getStatus(UUID trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "employee-ingestion");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            running = false;
+        }
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server, so no request can enqueue while the queue drains.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void drain() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Submission> batch) {
+        List<Employee> employees = batch.stream().map(Submission::employee).toList();
+        try {
+            for (EmployeeBatchResult result : employeeService.saveAll(employees)) {
+                UUID trackingId = batch.get(result.index()).trackingId();
+                statuses.put(trackingId, result.status() == EmployeeBatchResult.Status.CREATED
+                        ? EmployeeIngestionStatus.created(trackingId, result.employee().getId())
+                        : EmployeeIngestionStatus.conflict(trackingId, result.message()));
+            }
+        } catch (RuntimeException e) {
+            // One bad row rolls back the whole batch; retry row by row so only that one fails.
+            // The rolled-back attempt already drew ids, which would make the rows look detached.
+            employees.forEach(employee -> employee.setId(0));
+            batch.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(Submission submission) {
+        UUID trackingId = submission.trackingId();
+        try {
+            Employee saved = employeeService.saveEmployee(submission.employee());
+            statuses.put(trackingId, EmployeeIngestionStatus.created(trackingId, saved.getId()));
+        } catch (DuplicateEmailException e) {
+            statuses.put(trackingId, EmployeeIngestionStatus.conflict(trackingId, e.getMessage()));
+        } catch (RuntimeException e) {
+            statuses.put(trackingId, EmployeeIngestionStatus.failed(trackingId, e.getMessage()));
+        }
+    }
+
+    private static void validate(Employee employee) {
+        String error = EmployeeValidation.validate(employee);
+        if (error != null) {
+            throw new InvalidEmployeeException(error);
+        }
+    }
+
+    private record Submission(UUID trackingId, Employee employee) {
+    }
+}
@@ -0,0 +1,150 @@
+package net.javaguides.springboot.service.impl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.javaguides.springboot.config.MetricsConfig;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collects single-id lookups that arrive within {@code window} of each other (or until
+ * {@code max-batch-size} distinct ids) and loads them with one {@code findAllById}. The first
+ * caller of a batch waits out the window and runs the query on its own thread for everyone,
+ * so there is no dispatcher thread and concurrent batches run in parallel.
+ *
+ * <p>Callers inside a transaction bypass the batch: the shared query runs in another
+ * transaction and would not see their uncommitted writes.
+ */
+@Service
+@ConditionalOnProperty(name = "employee.lookup-batching.enabled", havingValue = "true")
+public class EmployeeLookupBatcher {
+
+    private EmployeeRepository employeeRepository;
+
+    private long windowNanos;
+
+    private int maxBatchSize;
+
+    private DistributionSummary batchSizes;
+
+    private AtomicReference<Batch> open = new AtomicReference<>();
+
+    public EmployeeLookupBatcher(EmployeeRepository employeeRepository, MeterRegistry meterRegistry,
+                                 @Value("${employee.lookup-batching.window:1ms}") Duration window,
+                                 @Value("${employee.lookup-batching.max-batch-size:100}") int maxBatchSize) {
+        this.employeeRepository = employeeRepository;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder(MetricsConfig.LOOKUP_BATCH_SIZE)
+                .description("Distinct ids per findAllById issued by the lookup batcher")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Optional<Employee> findById(long id) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return employeeRepository.findById(id);
+        }
+        while (true) {
+            Batch batch = open.get();
+            boolean leader = false;
+            if (batch == null) {
+                batch = new Batch();
+                if (!open.compareAndSet(null, batch)) {
+                    continue;
+                }
+                leader = true;
+            }
+            CompletableFuture<Optional<Employee>> lookup = batch.add(id);
+            if (lookup == null) {
+                // Sealed or full: it is being detached from open, so start or join the next one.
+                open.compareAndSet(batch, null);
+                continue;
+            }
+            if (leader) {
+                batch.awaitFull();
+                dispatch(batch);
+            }
+            try {
+                return lookup.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        open.compareAndSet(batch, null);
+        Map<Long, CompletableFuture<Optional<Employee>>> lookups = batch.seal();
+        batchSizes.record(lookups.size());
+        try {
+            Map<Long, Employee> found = employeeRepository.findAllById(lookups.keySet()).stream()
+                    .collect(Collectors.toMap(Employee::getId, Function.identity()));
+            lookups.forEach((id, lookup) -> lookup.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException e) {
+            lookups.values().forEach(lookup -> lookup.completeExceptionally(e));
+        }
+    }
+
+    private final class Batch {
+
+        private final Map<Long, CompletableFuture<Optional<Employee>>> lookups = new HashMap<>();
+
+        private final CountDownLatch full = new CountDownLatch(1);
+
+        private boolean sealed;
+
+        // Null once the batch is sealed or holds maxBatchSize other ids. Repeated ids share a lookup.
+        synchronized CompletableFuture<Optional<Employee>> add(long id) {
+            if (sealed) {
+                return null;
+            }
+            CompletableFuture<Optional<Employee>> lookup = lookups.get(id);
+            if (lookup != null) {
+                return lookup;
+            }
+            if (lookups.size() == maxBatchSize) {
+                return null;
+            }
+            lookup = new CompletableFuture<>();
+            lookups.put(id, lookup);
+            if (lookups.size() == maxBatchSize) {
+                full.countDown();
+            }
+            return lookup;
+        }
+
+        synchronized Map<Long, CompletableFuture<Optional<Employee>>> seal() {
+            sealed = true;
+            return lookups;
+        }
+
+        void awaitFull() {
+            try {
+                full.await(windowNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // Dispatch right away rather than strand the rest of the batch.
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
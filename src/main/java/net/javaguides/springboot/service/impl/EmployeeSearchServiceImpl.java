@@ -0,0 +1,315 @@
+package net.javaguides.springboot.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.exception.InvalidCursorException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeSearchService;
+import net.javaguides.springboot.service.EmployeeService;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over first name, last name and email. Every token of an employee is
+ * stored as a {@code token + '\0' + id} key in one sorted set, so a prefix query is a range
+ * scan that yields results in (token, id) order and a page costs O(limit), not O(matches).
+ *
+ * <p>The index is loaded before the web server starts and then follows the
+ * {@link EmployeeChangedEvent}s of committed writes. It only sees writes made through this
+ * instance; the reactive profile writes around the service, so the index is not used there.
+ * Deleted ids are remembered for a while, so a create or update event that arrives after the
+ * delete cannot bring the employee back.
+ */
+@Service
+@Profile("!reactive")
+public class EmployeeSearchServiceImpl implements EmployeeSearchService, SmartLifecycle {
+
+    // Bounds the work per page when the other query terms reject most of the driving term's matches.
+    static final int MAX_SCANNED_KEYS = 5_000;
+
+    // How far each term's key range is counted when picking the most selective one.
+    private static final int SELECTIVITY_SAMPLE = 256;
+
+    private static final char KEY_SEPARATOR = '\0';
+
+    private static final Pattern NON_TOKEN = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private EmployeeService employeeService;
+
+    private EmployeeRepository employeeRepository;
+
+    private NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+
+    private ConcurrentHashMap<Long, Document> documents = new ConcurrentHashMap<>();
+
+    // Ids are never reused, so a deleted one only has to outlive the events still in flight for it.
+    private Cache<Long, Boolean> tombstones = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    private volatile boolean running;
+
+    public EmployeeSearchServiceImpl(EmployeeService employeeService, EmployeeRepository employeeRepository) {
+        this.employeeService = employeeService;
+        this.employeeRepository = employeeRepository;
+    }
+
+    @Override
+    public EmployeeSearchPage search(String query, String cursor, int limit) {
+        String[] terms = significantTerms(tokenize(query));
+        if (terms.length == 0) {
+            return new EmployeeSearchPage(List.of(), null);
+        }
+        String after = cursor == null ? null : decodeCursor(cursor);
+        String driver = after == null ? mostSelectiveTerm(terms) : termOf(after, terms);
+        if (driver == null) {
+            return new EmployeeSearchPage(List.of(), null);
+        }
+
+        NavigableSet<String> candidates = range(driver);
+        if (after != null) {
+            candidates = candidates.tailSet(after, false);
+        }
+        List<Employee> content = new ArrayList<>(limit);
+        String lastMatch = null;
+        int scanned = 0;
+        for (String key : candidates) {
+            Document document = match(key, driver, terms);
+            if (document != null) {
+                // One match past the page tells us there is a next page.
+                if (content.size() == limit) {
+                    return new EmployeeSearchPage(content, encodeCursor(lastMatch));
+                }
+                content.add(document.toEmployee());
+                lastMatch = key;
+            }
+            if (++scanned == MAX_SCANNED_KEYS) {
+                // Hand back a short page and let the client resume from here.
+                return new EmployeeSearchPage(content, encodeCursor(key));
+            }
+        }
+        return new EmployeeSearchPage(content, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                if (event.employee() != null) {
+                    index(event.employee());
+                } else {
+                    employeeRepository.findById(event.id()).ifPresentOrElse(this::index, () -> remove(event.id()));
+                }
+            }
+            case DELETED -> remove(event.id());
+        }
+    }
+
+    @Override
+    public void start() {
+        employeeService.streamAllEmployees(this::index);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Load before the web server starts taking requests.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void index(Employee employee) {
+        Document document = Document.of(employee);
+        documents.compute(document.id(), (id, previous) -> {
+            // Events can arrive out of commit order; never replace a newer version or revive a deleted one.
+            if (previous != null && previous.version() > document.version()) {
+                return previous;
+            }
+            if (tombstones.getIfPresent(id) != null) {
+                return null;
+            }
+            for (String token : document.tokens()) {
+                keys.add(key(token, id));
+            }
+            if (previous != null) {
+                Set<String> current = Set.of(document.tokens());
+                for (String token : previous.tokens()) {
+                    if (!current.contains(token)) {
+                        keys.remove(key(token, id));
+                    }
+                }
+            }
+            return document;
+        });
+    }
+
+    private void remove(long id) {
+        // Before the removal, so an index() racing with it either sees the tombstone or is undone here.
+        tombstones.put(id, Boolean.TRUE);
+        documents.computeIfPresent(id, (key, previous) -> {
+            for (String token : previous.tokens()) {
+                keys.remove(key(token, id));
+            }
+            return null;
+        });
+    }
+
+    // Drops terms implied by a longer one ("ma" by "mar"); sorted order puts them side by side.
+    private static String[] significantTerms(String[] sortedTerms) {
+        List<String> terms = new ArrayList<>(sortedTerms.length);
+        for (int i = 0; i < sortedTerms.length; i++) {
+            if (i + 1 == sortedTerms.length || !sortedTerms[i + 1].startsWith(sortedTerms[i])) {
+                terms.add(sortedTerms[i]);
+            }
+        }
+        return terms.toArray(String[]::new);
+    }
+
+    // The term with the fewest keys drives the scan; null when some term matches nothing at all.
+    private String mostSelectiveTerm(String[] terms) {
+        String driver = null;
+        int driverKeys = Integer.MAX_VALUE;
+        for (String term : terms) {
+            int termKeys = countKeys(term);
+            if (termKeys == 0) {
+                return null;
+            }
+            // Past the sample size counts tie; a longer term is then the better guess.
+            if (termKeys < driverKeys || termKeys == driverKeys && term.length() > driver.length()) {
+                driver = term;
+                driverKeys = termKeys;
+            }
+        }
+        return driver;
+    }
+
+    // Later pages keep the driver of the first page, whatever the key counts are now.
+    private static String termOf(String cursorKey, String[] terms) {
+        for (String term : terms) {
+            if (cursorKey.startsWith(term)) {
+                return term;
+            }
+        }
+        throw new InvalidCursorException("Search cursor does not belong to this query");
+    }
+
+    private NavigableSet<String> range(String prefix) {
+        return keys.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private int countKeys(String prefix) {
+        int count = 0;
+        for (Iterator<String> iterator = range(prefix).iterator(); iterator.hasNext() && count < SELECTIVITY_SAMPLE; iterator.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    private Document match(String key, String driver, String[] terms) {
+        int separator = key.indexOf(KEY_SEPARATOR);
+        Document document = documents.get(Long.parseUnsignedLong(key.substring(separator + 1), 16));
+        if (document == null) {
+            return null;
+        }
+        // An employee can match the driver through several tokens; report it under the first one only.
+        if (!key.substring(0, separator).equals(document.firstTokenStartingWith(driver))) {
+            return null;
+        }
+        for (String term : terms) {
+            if (document.firstTokenStartingWith(term) == null) {
+                return null;
+            }
+        }
+        return document;
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return NON_TOKEN.splitAsStream(folded)
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    // Fixed-width hex keeps ids of the same token in numeric order.
+    private static String key(String token, long id) {
+        String hex = Long.toHexString(id);
+        return token + KEY_SEPARATOR + "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid search cursor: " + cursor);
+        }
+    }
+
+    private record Document(long id, String firstName, String lastName, String email, long version, String[] tokens) {
+
+        static Document of(Employee employee) {
+            String[] tokens = tokenize(String.join(" ", employee.getFirstName(), employee.getLastName(), employee.getEmail()));
+            return new Document(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                    employee.getEmail(), employee.getVersion(), tokens);
+        }
+
+        String firstTokenStartingWith(String prefix) {
+            int index = Arrays.binarySearch(tokens, prefix);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < tokens.length && tokens[index].startsWith(prefix) ? tokens[index] : null;
+        }
+
+        Employee toEmployee() {
+            return Employee.builder()
+                    .id(id)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(email)
+                    .version(version)
+                    .build();
+        }
+    }
+}
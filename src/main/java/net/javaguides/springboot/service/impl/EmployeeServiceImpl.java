@@ -1,49 +1,403 @@
 package net.javaguides.springboot.service.impl;
 
-import net.javaguides.springboot.exception.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import net.javaguides.springboot.config.CachingConfig;
+import net.javaguides.springboot.config.MetricsConfig;
+import net.javaguides.springboot.config.SingleFlight;
+import net.javaguides.springboot.dto.EmployeeBatchResult;
+import net.javaguides.springboot.dto.EmployeeFieldsPage;
+import net.javaguides.springboot.dto.EmployeeLookupResult;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeePatch;
+import net.javaguides.springboot.dto.EmployeeSlice;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.exception.DuplicateEmailException;
+import net.javaguides.springboot.exception.EmployeeVersionConflictException;
+import net.javaguides.springboot.exception.UnknownEmployeeFieldException;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeOutboxRepository;
 import net.javaguides.springboot.repository.EmployeeRepository;
 import net.javaguides.springboot.service.EmployeeService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = MetricsConfig.EMPLOYEE_SERVICE_TIMER, histogram = true)
+@CacheConfig(cacheNames = CachingConfig.EMPLOYEES_CACHE)
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("id", "firstName", "lastName", "email", "version");
+
     private EmployeeRepository employeeRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    private EmployeeOutboxRepository outboxRepository;
+
+    private EntityManager entityManager;
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private CacheManager cacheManager;
+
+    // Only present with employee.lookup-batching.enabled=true.
+    private EmployeeLookupBatcher lookupBatcher;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeOutboxRepository outboxRepository,
+                               EntityManager entityManager,
+                               MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher,
+                               CacheManager cacheManager, @Nullable EmployeeLookupBatcher lookupBatcher) {
         this.employeeRepository = employeeRepository;
+        this.outboxRepository = outboxRepository;
+        this.entityManager = entityManager;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.lookupBatcher = lookupBatcher;
     }
 
     @Override
+    @Transactional
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if(savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee already exists with the given email: " + employee.getEmail());
+        // Insert first and let the unique email index reject duplicates: one round trip, no race.
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                countDuplicateEmail("saveEmployee");
+                throw new DuplicateEmailException("Employee already exists with the given email: " + employee.getEmail(), e);
+            }
+            throw e;
         }
-        return employeeRepository.save(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(savedEmployee));
+        return savedEmployee;
     }
 
     @Override
+    @Transactional
+    public List<EmployeeBatchResult> saveAll(List<Employee> employees) {
+        Set<String> takenEmails = new HashSet<>(employeeRepository.findExistingEmails(
+                employees.stream().map(Employee::getEmail).toList()));
+
+        List<EmployeeBatchResult> results = new ArrayList<>(employees.size());
+        List<Employee> toInsert = new ArrayList<>(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            // add() also catches duplicates repeated inside the same batch
+            if (!takenEmails.add(employee.getEmail())) {
+                countDuplicateEmail("saveAll");
+                results.add(EmployeeBatchResult.conflict(i, employee,
+                        "Employee already exists with the given email: " + employee.getEmail()));
+                continue;
+            }
+            toInsert.add(employee);
+            results.add(EmployeeBatchResult.created(i, employee));
+        }
+        // Ids come from a pooled sequence, so Hibernate can group these into JDBC batches.
+        try {
+            employeeRepository.saveAll(toInsert);
+            employeeRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the emails after our check; the whole batch rolls back.
+            if (isDuplicateEmail(e)) {
+                countDuplicateEmail("saveAll");
+                throw new DuplicateEmailException("Employee already exists with one of the given emails", e);
+            }
+            throw e;
+        }
+        toInsert.forEach(employee -> eventPublisher.publishEvent(EmployeeChangedEvent.created(employee)));
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllEmployeeFields(List<String> fields) {
+        return employeeRepository.findAllFields(projectableFields(fields));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeePage getEmployeesAfter(long afterId, int limit) {
+        // Fetch one extra row so we know whether a next page exists without a count query.
+        List<Employee> employees = employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit + 1));
+        if (employees.size() <= limit) {
+            return new EmployeePage(employees, null);
+        }
+        List<Employee> content = employees.subList(0, limit);
+        return new EmployeePage(content, content.get(limit - 1).getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeFieldsPage getEmployeeFieldsAfter(List<String> fields, long afterId, int limit) {
+        List<String> selected = projectableFields(fields);
+        // The cursor is the last row's id, so select it even when the caller did not ask for it.
+        List<String> queried = selected.contains("id")
+                ? selected
+                : Stream.concat(selected.stream(), Stream.of("id")).toList();
+        // Same extra row as getEmployeesAfter, to tell whether a next page exists.
+        List<Map<String, Object>> rows = employeeRepository.findFieldsAfter(queried, afterId, limit + 1);
+        Long nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = (Long) rows.get(limit - 1).get("id");
+        }
+        if (!selected.contains("id")) {
+            rows.forEach(row -> row.remove("id"));
+        }
+        return new EmployeeFieldsPage(rows, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllEmployees(Consumer<Employee> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAllByOrderByIdAsc()) {
+            employees.forEach(employee -> {
+                consumer.accept(employee);
+                // Keep the persistence context from growing with the table.
+                entityManager.detach(employee);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeSlice findEmployeesByName(String firstName, String lastName, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+        // Both queries are served by idx_employees_last_first; a Slice skips the count query.
+        Slice<Employee> employees = firstName == null
+                ? employeeRepository.findByLastName(lastName, pageable)
+                : employeeRepository.findByName(firstName, lastName, pageable);
+        return new EmployeeSlice(employees.getContent(), page, size, employees.hasNext());
+    }
+
+    @Override
+    @SingleFlight
+    @Cacheable(key = "#id", unless = "#result == null")
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        // No method-level transaction: batched callers would hold a connection while they wait,
+        // and findById/findAllById already run in a repository transaction, on the primary.
+        Optional<Employee> employee = lookupBatcher != null
+                ? lookupBatcher.findById(id)
+                : employeeRepository.findById(id);
+        if (employee.isEmpty()) {
+            countNotFound("getEmployeeById", 1);
+        }
+        return employee;
+    }
+
+    // Serves what it can from the cache getEmployeeById fills, then loads the rest in one IN query.
+    // No method-level transaction, so a fully cached request never takes a connection; the misses
+    // are read from the primary, like getEmployeeById, before they are cached.
+    @Override
+    public List<EmployeeLookupResult> getEmployeesByIds(List<Long> ids) {
+        Cache cache = cacheManager.getCache(CachingConfig.EMPLOYEES_CACHE);
+        Map<Long, Employee> employees = new HashMap<>();
+        Set<Long> uncached = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (employees.containsKey(id) || uncached.contains(id)) {
+                continue;
+            }
+            Employee cached = cache == null ? null : cache.get(id, Employee.class);
+            if (cached != null) {
+                employees.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            for (Employee employee : employeeRepository.findAllById(uncached)) {
+                employees.put(employee.getId(), employee);
+                if (cache != null) {
+                    cache.put(employee.getId(), employee);
+                }
+            }
+        }
+        List<EmployeeLookupResult> results = new ArrayList<>(ids.size());
+        int missing = 0;
+        for (Long id : ids) {
+            Employee employee = employees.get(id);
+            if (employee != null) {
+                results.add(EmployeeLookupResult.found(employee));
+            } else {
+                results.add(EmployeeLookupResult.notFound(id));
+                missing++;
+            }
+        }
+        if (missing > 0) {
+            countNotFound("getEmployeesByIds", missing);
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getEmployeeVersion(long id) {
+        return employeeRepository.findVersionById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public long getEmployeesVersion() {
+        return outboxRepository.countChanges();
+    }
+
+    // Evict before as well, so a failed save never leaves a modified instance behind in the cache.
+    @Override
+    @Caching(evict = {
+            @CacheEvict(key = "#updatedEmployee.id", beforeInvocation = true),
+            @CacheEvict(key = "#updatedEmployee.id")
+    })
+    @Transactional
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.save(updatedEmployee);
+            // Flush here so a version conflict surfaces in this try rather than at commit.
+            employeeRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new EmployeeVersionConflictException("Employee was modified concurrently: " + updatedEmployee.getId(), e);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                countDuplicateEmail("updateEmployee");
+                throw new DuplicateEmailException("Employee already exists with the given email: " + updatedEmployee.getEmail(), e);
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(savedEmployee));
+        return savedEmployee;
     }
 
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    @Transactional
+    @CacheEvict(key = "#id")
+    public boolean patchEmployee(long id, EmployeePatch patch) {
+        int updated;
+        try {
+            updated = employeeRepository.patch(id, patch.firstName(), patch.lastName(), patch.email(), patch.version());
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                countDuplicateEmail("patchEmployee");
+                throw new DuplicateEmailException("Employee already exists with the given email: " + patch.email(), e);
+            }
+            throw e;
+        }
+        // Only a failed versioned update needs the extra read to tell "stale" from "missing".
+        if (updated == 0 && patch.version() != null && employeeRepository.existsById(id)) {
+            throw new EmployeeVersionConflictException("Employee " + id + " is no longer at version " + patch.version());
+        }
+        if (updated == 0) {
+            countNotFound("patchEmployee", 1);
+            return false;
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.patched(id));
+        return true;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(key = "#id")
+    public boolean deleteEmployee(long id) {
+        if (employeeRepository.deleteEmployeeById(id) == 0) {
+            countNotFound("deleteEmployee", 1);
+            return false;
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+        return true;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(key = "#id")
+    public boolean deleteEmployee(long id, long version) {
+        if (employeeRepository.deleteEmployeeByIdAndVersion(id, version) > 0) {
+            eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+            return true;
+        }
+        if (employeeRepository.existsById(id)) {
+            throw new EmployeeVersionConflictException("Employee " + id + " is no longer at version " + version);
+        }
+        countNotFound("deleteEmployee", 1);
+        return false;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(allEntries = true)
+    public int deleteEmployees(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // The bulk delete does not say which ids existed, so find out first and announce only those.
+        List<Long> existing = employeeRepository.findIdsForDelete(ids);
+        int deleted = existing.isEmpty() ? 0 : employeeRepository.deleteEmployeesByIdIn(existing);
+        countNotFound("deleteEmployees", ids.size() - deleted);
+        existing.forEach(id -> eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id)));
+        return deleted;
+    }
+
+    private static List<String> projectableFields(List<String> fields) {
+        List<String> selected = fields.stream().distinct().toList();
+        for (String field : selected) {
+            if (!PROJECTABLE_FIELDS.contains(field)) {
+                throw new UnknownEmployeeFieldException("Unknown employee field: " + field);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new UnknownEmployeeFieldException("At least one employee field is required");
+        }
+        return selected;
+    }
+
+    // Package-private for the reactive service, which maps the same violation on its update path.
+    static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_INDEX);
+    }
+
+    private void countDuplicateEmail(String operation) {
+        meterRegistry.counter(MetricsConfig.DUPLICATE_EMAIL_COUNTER, "operation", operation).increment();
+    }
+
+    private void countNotFound(String operation, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter(MetricsConfig.NOT_FOUND_COUNTER, "operation", operation).increment(amount);
+        }
     }
 }
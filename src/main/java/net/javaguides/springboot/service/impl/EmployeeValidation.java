@@ -0,0 +1,26 @@
+package net.javaguides.springboot.service.impl;
+
+import net.javaguides.springboot.model.Employee;
+
+final class EmployeeValidation {
+
+    private EmployeeValidation() {
+    }
+
+    /**
+     * Returns why the employee cannot be created, or null when it is valid.
+     */
+    static String validate(Employee employee) {
+        if (isBlank(employee.getFirstName()) || isBlank(employee.getLastName())) {
+            return "Employee first and last name are required";
+        }
+        if (isBlank(employee.getEmail()) || employee.getEmail().indexOf('@') < 1) {
+            return "Employee email is invalid: " + employee.getEmail();
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,81 @@
+package net.javaguides.springboot.service.impl;
+
+import net.javaguides.springboot.dto.IdempotencyRecord;
+import net.javaguides.springboot.dto.IdempotentResponse;
+import net.javaguides.springboot.exception.IdempotencyKeyInFlightException;
+import net.javaguides.springboot.exception.IdempotencyKeyReusedException;
+import net.javaguides.springboot.service.IdempotencyService;
+import net.javaguides.springboot.service.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private IdempotencyStore store;
+
+    private Duration waitTimeout;
+
+    public IdempotencyServiceImpl(IdempotencyStore store,
+                                  @Value("${employee.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.store = store;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    public IdempotentResponse execute(String key, String requestHash, Supplier<IdempotentResponse> request) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        // Loops only when the request holding the key gives it up, so one of the waiters can take over.
+        while (true) {
+            if (store.reserve(key, requestHash)) {
+                return run(key, request);
+            }
+            Optional<IdempotencyRecord> existing = store.find(key);
+            if (existing.isEmpty()) {
+                continue;
+            }
+            if (!existing.get().requestHash().equals(requestHash)) {
+                throw new IdempotencyKeyReusedException("Idempotency-Key " + key + " was used for a different request");
+            }
+            if (existing.get().response() == null) {
+                existing = await(key, deadline);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+            }
+            if (existing.get().response() == null) {
+                throw new IdempotencyKeyInFlightException("A request with Idempotency-Key " + key + " is still in progress");
+            }
+            return existing.get().response();
+        }
+    }
+
+    private IdempotentResponse run(String key, Supplier<IdempotentResponse> request) {
+        IdempotentResponse response;
+        try {
+            response = request.get();
+        } catch (RuntimeException | Error e) {
+            store.release(key);
+            throw e;
+        }
+        if (response.status() >= 200 && response.status() < 300) {
+            store.complete(key, response);
+        } else {
+            store.release(key);
+        }
+        return response;
+    }
+
+    private Optional<IdempotencyRecord> await(String key, long deadline) {
+        try {
+            return store.await(key, Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInFlightException("Interrupted while waiting for Idempotency-Key " + key);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package net.javaguides.springboot.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import net.javaguides.springboot.dto.IdempotencyRecord;
+import net.javaguides.springboot.dto.IdempotentResponse;
+import net.javaguides.springboot.service.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps each key's response as a future, so waiting duplicates wake up as soon as the first
+ * request finishes. Keys expire a fixed time after they were reserved.
+ */
+@Service
+@ConditionalOnProperty(name = "employee.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private Cache<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${employee.idempotency.maximum-size:100000}") long maximumSize,
+                                    @Value("${employee.idempotency.ttl:24h}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                // Wake up anyone still waiting on an evicted key; they retry and one of them takes it over.
+                .removalListener((String key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null && cause.wasEvicted()) {
+                        entry.response().complete(null);
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public boolean reserve(String key, String requestHash) {
+        return entries.asMap().putIfAbsent(key, new Entry(requestHash, new CompletableFuture<>())) == null;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return Optional.ofNullable(entries.getIfPresent(key)).map(Entry::record);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> await(String key, Duration timeout) throws InterruptedException {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        try {
+            // Completes with null when the key is released.
+            IdempotentResponse response = entry.response().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return response == null ? Optional.empty() : Optional.of(new IdempotencyRecord(entry.requestHash(), response));
+        } catch (TimeoutException e) {
+            return Optional.of(entry.record());
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null) {
+            entry.response().complete(response);
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        Entry entry = entries.asMap().remove(key);
+        if (entry != null) {
+            entry.response().complete(null);
+        }
+    }
+
+    private record Entry(String requestHash, CompletableFuture<IdempotentResponse> response) {
+
+        IdempotencyRecord record() {
+            return new IdempotencyRecord(requestHash, response.getNow(null));
+        }
+    }
+}
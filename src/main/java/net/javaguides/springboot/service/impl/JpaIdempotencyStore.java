@@ -0,0 +1,106 @@
+package net.javaguides.springboot.service.impl;
+
+import net.javaguides.springboot.dto.IdempotencyRecord;
+import net.javaguides.springboot.dto.IdempotentResponse;
+import net.javaguides.springboot.repository.IdempotencyKeyRepository;
+import net.javaguides.springboot.service.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares keys between instances through the idempotency_keys table. The primary key decides
+ * which request owns a key; duplicates poll the row until it has a response. The owner holds the
+ * key for {@code lease}: if it dies without completing or releasing it, a later request with the
+ * same key takes over once the lease has run out instead of waiting for the TTL. Expired rows are
+ * ignored on read and purged at most once per {@code purge-interval}.
+ */
+@Service
+@ConditionalOnProperty(name = "employee.idempotency.store", havingValue = "jpa")
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    private static final long POLL_MILLIS = 50;
+
+    private IdempotencyKeyRepository repository;
+
+    private Duration ttl;
+
+    private Duration lease;
+
+    private Duration purgeInterval;
+
+    private Clock clock = Clock.systemUTC();
+
+    private AtomicLong nextPurge = new AtomicLong();
+
+    public JpaIdempotencyStore(IdempotencyKeyRepository repository,
+                               @Value("${employee.idempotency.ttl:24h}") Duration ttl,
+                               @Value("${employee.idempotency.lease:30s}") Duration lease,
+                               @Value("${employee.idempotency.purge-interval:1m}") Duration purgeInterval) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.purgeInterval = purgeInterval;
+    }
+
+    @Override
+    public boolean reserve(String key, String requestHash) {
+        Instant now = clock.instant();
+        purgeIfDue(now);
+        if (insert(key, requestHash, now)) {
+            return true;
+        }
+        // The row may be left over from a request whose key or lease has expired; find() no longer sees it.
+        return repository.deleteExpired(key, now.minus(ttl), now) > 0 && insert(key, requestHash, now);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        Instant now = clock.instant();
+        return repository.findRecord(key, now.minus(ttl), now);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> await(String key, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Optional<IdempotencyRecord> record = find(key);
+        while (record.isPresent() && record.get().response() == null && System.nanoTime() < deadline) {
+            Thread.sleep(POLL_MILLIS);
+            record = find(key);
+        }
+        return record;
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        repository.complete(key, response.status(), response.location(), response.body());
+    }
+
+    @Override
+    public void release(String key) {
+        repository.release(key);
+    }
+
+    private boolean insert(String key, String requestHash, Instant now) {
+        try {
+            repository.insert(key, requestHash, now, now.plus(lease));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void purgeIfDue(Instant now) {
+        long due = nextPurge.get();
+        if (now.toEpochMilli() >= due && nextPurge.compareAndSet(due, now.plus(purgeInterval).toEpochMilli())) {
+            repository.deleteAllExpired(now.minus(ttl));
+        }
+    }
+}
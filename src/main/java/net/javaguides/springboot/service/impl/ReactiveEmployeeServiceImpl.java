@@ -0,0 +1,156 @@
+package net.javaguides.springboot.service.impl;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import net.javaguides.springboot.config.CachingConfig;
+import net.javaguides.springboot.exception.DuplicateEmailException;
+import net.javaguides.springboot.exception.EmployeeVersionConflictException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking {@link ReactiveEmployeeService} on R2DBC. Creates still go through the blocking
+ * {@link EmployeeService} on a bounded elastic scheduler, because ids come from Hibernate's
+ * pooled sequence and must stay consistent with the JPA write path.
+ *
+ * <p>Updates and deletes follow the MVC API: with a version they only apply at that version,
+ * and they evict the employee cache. They publish no change events: the change feed and the
+ * search index that consume them do not run under the reactive profile.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private static final String SELECT_EMPLOYEE = "SELECT id, first_name, last_name, email, version FROM employees";
+
+    private static final String UPDATE_EMPLOYEE = "UPDATE employees SET first_name = :firstName, last_name = :lastName, " +
+            "email = :email, version = version + 1 WHERE id = :id";
+
+    private static final String DELETE_EMPLOYEE = "DELETE FROM employees WHERE id = :id";
+
+    private DatabaseClient databaseClient;
+
+    private EmployeeService employeeService;
+
+    private CacheManager cacheManager;
+
+    public ReactiveEmployeeServiceImpl(ConnectionFactory connectionFactory, EmployeeService employeeService,
+                                       CacheManager cacheManager) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.employeeService = employeeService;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        return Mono.fromCallable(() -> employeeService.saveEmployee(employee))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        return databaseClient.sql(SELECT_EMPLOYEE + " ORDER BY id")
+                .map(ReactiveEmployeeServiceImpl::toEmployee)
+                .all();
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(long id) {
+        return databaseClient.sql(SELECT_EMPLOYEE + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeServiceImpl::toEmployee)
+                .one();
+    }
+
+    @Override
+    public Mono<Employee> updateEmployee(long id, Employee updatedEmployee) {
+        return update(databaseClient.sql(UPDATE_EMPLOYEE), id, updatedEmployee)
+                .flatMap(updated -> updated > 0 ? updated(id) : Mono.empty());
+    }
+
+    @Override
+    public Mono<Employee> updateEmployee(long id, Employee updatedEmployee, long version) {
+        return update(databaseClient.sql(UPDATE_EMPLOYEE + " AND version = :version").bind("version", version), id, updatedEmployee)
+                .flatMap(updated -> updated > 0 ? updated(id) : versionConflict(id, version));
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(long id) {
+        return delete(databaseClient.sql(DELETE_EMPLOYEE), id);
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(long id, long version) {
+        return delete(databaseClient.sql(DELETE_EMPLOYEE + " AND version = :version").bind("version", version), id)
+                .flatMap(deleted -> deleted ? Mono.just(true) : this.<Boolean>versionConflict(id, version).defaultIfEmpty(false));
+    }
+
+    private Mono<Long> update(DatabaseClient.GenericExecuteSpec update, long id, Employee updatedEmployee) {
+        return update
+                .bind("firstName", updatedEmployee.getFirstName())
+                .bind("lastName", updatedEmployee.getLastName())
+                .bind("email", updatedEmployee.getEmail())
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .onErrorMap(DataIntegrityViolationException.class, e -> EmployeeServiceImpl.isDuplicateEmail(e)
+                        ? new DuplicateEmailException("Employee already exists with the given email: " + updatedEmployee.getEmail(), e)
+                        : e);
+    }
+
+    private Mono<Employee> updated(long id) {
+        evict(id);
+        return getEmployeeById(id);
+    }
+
+    private Mono<Boolean> delete(DatabaseClient.GenericExecuteSpec delete, long id) {
+        return delete
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(deleted -> {
+                    if (deleted == 0) {
+                        return false;
+                    }
+                    evict(id);
+                    return true;
+                });
+    }
+
+    // Only a failed versioned write needs the extra read to tell "stale" from "missing".
+    private <T> Mono<T> versionConflict(long id, long version) {
+        return databaseClient.sql("SELECT id FROM employees WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .first()
+                .flatMap(row -> Mono.error(new EmployeeVersionConflictException("Employee " + id + " is no longer at version " + version)));
+    }
+
+    private void evict(long id) {
+        Cache cache = cacheManager.getCache(CachingConfig.EMPLOYEES_CACHE);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+
+    private static Employee toEmployee(Row row, RowMetadata metadata) {
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
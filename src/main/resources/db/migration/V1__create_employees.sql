@@ -0,0 +1,18 @@
+CREATE TABLE employees (
+    id         BIGINT       NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    version    BIGINT       NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE UNIQUE INDEX uk_employees_email ON employees (email);
+CREATE INDEX idx_employees_last_first ON employees (last_name, first_name);
+
+-- MySQL has no sequences; Hibernate emulates employees_seq with a single-row table.
+CREATE TABLE employees_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO employees_seq VALUES (1);
@@ -0,0 +1,13 @@
+-- Backs employee.idempotency.store=jpa; response_status stays NULL while the first request is in flight.
+-- Databases baselined at V1 may already have the table from ddl-auto=update, so it is kept when present.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key   VARCHAR(255) NOT NULL,
+    request_hash      VARCHAR(64)  NOT NULL,
+    response_status   INT,
+    response_location VARCHAR(255),
+    response_body     LONGTEXT,
+    created_at        DATETIME(6)  NOT NULL,
+    reserved_until    DATETIME(6)  NOT NULL,
+    PRIMARY KEY (idempotency_key),
+    INDEX idx_idempotency_keys_created_at (created_at)
+) ENGINE = InnoDB;
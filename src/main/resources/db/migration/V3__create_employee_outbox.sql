@@ -0,0 +1,22 @@
+-- Change events written in the same transaction as the employee change; feed_position is
+-- assigned by the relay when it publishes them. Databases baselined at V1 may already have
+-- these tables from ddl-auto=update, so each one is kept when present.
+CREATE TABLE IF NOT EXISTS employee_outbox (
+    id            BIGINT      NOT NULL,
+    feed_position BIGINT,
+    type          VARCHAR(16) NOT NULL,
+    employee_id   BIGINT      NOT NULL,
+    employee      LONGTEXT,
+    created_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE INDEX uk_employee_outbox_position (feed_position),
+    INDEX idx_employee_outbox_created_at (created_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS employee_outbox_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+-- Hibernate seeds the table itself when it creates it.
+INSERT INTO employee_outbox_seq (next_val)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM employee_outbox_seq);
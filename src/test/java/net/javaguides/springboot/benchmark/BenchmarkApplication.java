@@ -0,0 +1,45 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.SpringBootTestingApplication;
+import net.javaguides.springboot.model.Employee;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Boots the application against a private in-memory H2 database. Arguments are passed as
+     * command line properties so they win over application.properties.
+     */
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        String[] args = Stream.concat(Stream.of(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--server.port=0",
+                        "--logging.level.root=WARN"),
+                Stream.of(extraArgs))
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class).run(args);
+    }
+
+    static List<Employee> employees(String prefix, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email(prefix + i + "@benchmark.com")
+                    .build());
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,93 @@
+package net.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Request throughput through the full MVC stack, once with the default properties and once
+ * with the prod profile. Both runs use the in-memory H2 schema created by Hibernate, so the
+ * prod run measures SQL echo, open-in-view and pool settings; the MySQL driver properties
+ * only take effect against a MySQL server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeControllerBenchmark {
+
+    private static final int SEEDED_EMPLOYEES = 1_000;
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    private ObjectMapper objectMapper;
+
+    private long[] seededIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // The Flyway migrations are MySQL-only; the H2 schema comes from ddl-auto instead.
+        context = BenchmarkApplication.start(
+                "--spring.profiles.active=" + profile,
+                "--spring.flyway.enabled=false");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        objectMapper = context.getBean(ObjectMapper.class);
+        List<Employee> employees = BenchmarkApplication.employees("seeded", SEEDED_EMPLOYEES);
+        context.getBean(EmployeeService.class).saveAll(employees);
+        seededIds = employees.stream().mapToLong(Employee::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getEmployeeById() throws Exception {
+        long id = seededIds[ThreadLocalRandom.current().nextInt(seededIds.length)];
+        return mockMvc.perform(get("/api/employees/{id}", id)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createEmployee() throws Exception {
+        long n = sequence.incrementAndGet();
+        Employee employee = Employee.builder()
+                .firstName("Bench")
+                .lastName("Mark" + n)
+                .email("controller" + n + "@benchmark.com")
+                .build();
+        return mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(employee)))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getEmployeesPage() throws Exception {
+        return mockMvc.perform(get("/api/employees").param("limit", "50")).andReturn();
+    }
+}
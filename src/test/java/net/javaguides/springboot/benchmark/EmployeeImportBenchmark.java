@@ -0,0 +1,66 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+import net.javaguides.springboot.service.EmployeeImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rows per second through the CSV import for a few chunk sizes. Each invocation imports a
+ * fresh file of {@link #ROWS} rows with unique emails, so every row is an insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeImportBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"100", "1000"})
+    private int chunkSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeImportService importService;
+
+    private String csv;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start(
+                "--spring.jpa.show-sql=false",
+                "--employee.import.chunk-size=" + chunkSize);
+        importService = context.getBean(EmployeeImportService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextFile() {
+        long file = sequence.incrementAndGet();
+        StringBuilder builder = new StringBuilder(ROWS * 48).append("firstName,lastName,email\n");
+        for (int i = 0; i < ROWS; i++) {
+            builder.append("Bench,Mark").append(i).append(",import").append(file).append('-').append(i)
+                    .append("@benchmark.com\n");
+        }
+        csv = builder.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public EmployeeImportSummary importCsv() throws Exception {
+        return importService.importCsv(new StringReader(csv));
+    }
+}
@@ -0,0 +1,83 @@
+package net.javaguides.springboot.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uncached getEmployeeById from 16 threads against a 4-connection pool, with and without lookup
+ * batching. Sample mode reports the latency percentiles; each iteration also prints the SQL
+ * statements per second it cost the database. H2 in memory has no network round trip, so the
+ * latency side understates what batching saves against a remote database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeLookupBatchingBenchmark {
+
+    private static final int SEEDED_EMPLOYEES = 10_000;
+
+    @Param({"false", "true"})
+    private boolean batching;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private Statistics statistics;
+
+    private long[] seededIds;
+
+    private long iterationStatements;
+
+    private long iterationStart;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start(
+                "--employee.lookup-batching.enabled=" + batching,
+                "--spring.cache.type=none",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.hikari.maximum-pool-size=4");
+        employeeService = context.getBean(EmployeeService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        List<Employee> employees = BenchmarkApplication.employees("batched", SEEDED_EMPLOYEES);
+        employeeService.saveAll(employees);
+        seededIds = employees.stream().mapToLong(Employee::getId).toArray();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        iterationStatements = statistics.getPrepareStatementCount();
+        iterationStart = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportIteration() {
+        double seconds = (System.nanoTime() - iterationStart) / 1e9;
+        System.out.printf("  db statements/s: %.0f%n", (statistics.getPrepareStatementCount() - iterationStatements) / seconds);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(seededIds[ThreadLocalRandom.current().nextInt(seededIds.length)]);
+    }
+}
@@ -0,0 +1,76 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the four first/last name query styles of {@link EmployeeRepository} with the
+ * paginated finder the service uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeNameQueryBenchmark {
+
+    private static final int SEEDED_EMPLOYEES = 10_000;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start();
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        employeeRepository.saveAll(BenchmarkApplication.employees("named", SEEDED_EMPLOYEES));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee jpqlWithIndexParams() {
+        int i = randomIndex();
+        return employeeRepository.findByJPQLWithIndexParams("First" + i, "Last" + i);
+    }
+
+    @Benchmark
+    public Employee jpqlWithNamedParams() {
+        int i = randomIndex();
+        return employeeRepository.findByJPQLWithNamedParams("First" + i, "Last" + i);
+    }
+
+    @Benchmark
+    public Employee nativeSqlWithIndexParams() {
+        int i = randomIndex();
+        return employeeRepository.findByNativeSQLWithIndexParams("First" + i, "Last" + i);
+    }
+
+    @Benchmark
+    public Employee nativeSqlWithNamedParams() {
+        int i = randomIndex();
+        return employeeRepository.findByNativeSQLWithNamedParams("First" + i, "Last" + i);
+    }
+
+    @Benchmark
+    public Slice<Employee> pagedFindByName() {
+        int i = randomIndex();
+        return employeeRepository.findByName("First" + i, "Last" + i, PageRequest.of(0, 20));
+    }
+
+    private static int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(SEEDED_EMPLOYEES);
+    }
+}
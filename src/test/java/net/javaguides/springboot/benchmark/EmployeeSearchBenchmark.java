@@ -0,0 +1,75 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.impl.EmployeeSearchServiceImpl;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over an index of one million generated employees. The index is fed through
+ * change events directly, so the numbers exclude HTTP and JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeSearchBenchmark {
+
+    private static final int INDEXED_EMPLOYEES = 1_000_000;
+
+    private static final String[] SYLLABLES = {"ma", "ri", "an", "to", "lu", "ca", "se", "jo", "na", "el", "ro", "sa"};
+
+    @Param({"m", "mar", "mar ung", "ana lucas"})
+    private String query;
+
+    private EmployeeSearchServiceImpl searchService;
+
+    private String secondPage;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        searchService = new EmployeeSearchServiceImpl(Mockito.mock(EmployeeService.class),
+                Mockito.mock(EmployeeRepository.class));
+        searchService.start();
+        Random random = new Random(42);
+        for (int i = 1; i <= INDEXED_EMPLOYEES; i++) {
+            String firstName = name(random);
+            String lastName = name(random);
+            searchService.onEmployeeChanged(EmployeeChangedEvent.created(Employee.builder()
+                    .id(i)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@benchmark.com")
+                    .build()));
+        }
+        secondPage = searchService.search(query, null, 20).nextCursor();
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 2 + random.nextInt(3); i > 0; i--) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    @Benchmark
+    public EmployeeSearchPage firstPage() {
+        return searchService.search(query, null, 20);
+    }
+
+    @Benchmark
+    public EmployeeSearchPage nextPage() {
+        return searchService.search(query, secondPage, 20);
+    }
+}
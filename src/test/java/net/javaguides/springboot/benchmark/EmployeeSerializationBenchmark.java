@@ -0,0 +1,41 @@
+package net.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeeSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<Employee> employees;
+
+    @Setup
+    public void setup() {
+        // Same defaults Spring Boot applies to the ObjectMapper used by the controllers.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Employee> seeded = BenchmarkApplication.employees("serialized", size);
+        LongStream.range(0, size).forEach(i -> seeded.get((int) i).setId(i + 1));
+        employees = seeded;
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+}
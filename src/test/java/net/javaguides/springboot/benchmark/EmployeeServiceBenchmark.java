@@ -0,0 +1,86 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeServiceBenchmark {
+
+    private static final int SEEDED_EMPLOYEES = 1_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private long[] seededIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start();
+        employeeService = context.getBean(EmployeeService.class);
+        List<Employee> employees = BenchmarkApplication.employees("seeded", SEEDED_EMPLOYEES);
+        employeeService.saveAll(employees);
+        seededIds = employees.stream().mapToLong(Employee::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee createEmployee() {
+        return employeeService.saveEmployee(newEmployee());
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(randomSeededId());
+    }
+
+    @Benchmark
+    public Employee updateEmployee() {
+        // Same steps as PUT /api/employees/{id}: load, then save a copy so the cached instance stays untouched.
+        Employee cachedEmployee = employeeService.getEmployeeById(randomSeededId()).orElseThrow();
+        return employeeService.updateEmployee(Employee.builder()
+                .id(cachedEmployee.getId())
+                .firstName("Updated" + sequence.incrementAndGet())
+                .lastName(cachedEmployee.getLastName())
+                .email(cachedEmployee.getEmail())
+                .version(cachedEmployee.getVersion())
+                .build());
+    }
+
+    @Benchmark
+    public void createAndDeleteEmployee() {
+        employeeService.deleteEmployee(employeeService.saveEmployee(newEmployee()).getId());
+    }
+
+    private Employee newEmployee() {
+        long n = sequence.incrementAndGet();
+        return Employee.builder()
+                .firstName("Bench")
+                .lastName("Mark" + n)
+                .email("bench" + n + "@benchmark.com")
+                .build();
+    }
+
+    private long randomSeededId() {
+        return seededIds[ThreadLocalRandom.current().nextInt(seededIds.length)];
+    }
+}
@@ -0,0 +1,62 @@
+package net.javaguides.springboot.benchmark;
+
+import net.javaguides.springboot.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares thread-per-request on platform threads with the virtual-threads profile. Both
+ * runs use the same Hikari pool size and drive real HTTP requests through Tomcat from many
+ * concurrent clients. The virtual-threads run needs a Java 21 JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(256)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class EmployeeThreadModelBenchmark {
+
+    private static final int POOL_SIZE = 20;
+
+    @Param({"platform", "virtual-threads"})
+    private String threadModel;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private URI pageUri;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start(
+                "--spring.profiles.active=" + ("platform".equals(threadModel) ? "default" : threadModel),
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                "--spring.jpa.show-sql=false");
+        context.getBean(EmployeeService.class).saveAll(BenchmarkApplication.employees("threads", 1_000));
+        String port = context.getEnvironment().getProperty("local.server.port");
+        pageUri = URI.create("http://localhost:" + port + "/api/employees?limit=50");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getEmployeesPage() throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(pageUri).GET().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,187 @@
+package net.javaguides.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingDataSourceTests {
+
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(30);
+
+    private final DataSource primary = h2("primary");
+
+    private final DataSource replica1 = h2("replica1");
+
+    private final DataSource replica2 = h2("replica2");
+
+    private final MutableClock clock = new MutableClock();
+
+    @AfterEach
+    public void tearDown(){
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    // An in-memory database that does not exist, so every connection attempt fails.
+    private static DataSource unreachable() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:unreachable;IFEXISTS=TRUE");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    private static String urlOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    @DisplayName("Junit test for routing read-write work to the primary")
+    @Test
+    public void givenNoReadOnlyTransaction_whenGetConnection_thenUsePrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), RETRY_INTERVAL, clock);
+
+        assertThat(urlOf(routing)).contains("primary");
+        assertThat(urlOf(routing)).contains("primary");
+    }
+
+    @DisplayName("Junit test for round-robin routing of read-only work")
+    @Test
+    public void givenReadOnlyTransaction_whenGetConnection_thenAlternateReplicas() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), RETRY_INTERVAL, clock);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(List.of(urlOf(routing), urlOf(routing), urlOf(routing), urlOf(routing)))
+                .containsExactly("jdbc:h2:mem:replica1", "jdbc:h2:mem:replica2", "jdbc:h2:mem:replica1", "jdbc:h2:mem:replica2");
+    }
+
+    @DisplayName("Junit test for skipping a failed replica until the retry interval has passed")
+    @Test
+    public void givenFailingReplica_whenGetConnection_thenSkipItUntilRetryInterval() throws SQLException {
+        CountingDataSource failing = new CountingDataSource(unreachable());
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(failing, replica2), RETRY_INTERVAL, clock);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(urlOf(routing)).contains("replica2");
+        }
+        assertThat(failing.attempts.get()).isEqualTo(1);
+
+        clock.advance(RETRY_INTERVAL);
+        urlOf(routing);
+        urlOf(routing);
+        assertThat(failing.attempts.get()).isEqualTo(2);
+    }
+
+    @DisplayName("Junit test for falling back to the primary when no replica is available")
+    @Test
+    public void givenAllReplicasDown_whenGetConnection_thenUsePrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(unreachable()), RETRY_INTERVAL, clock);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(urlOf(routing)).contains("primary");
+    }
+
+    @DisplayName("Junit test for routing through a real transaction manager")
+    @Test
+    public void givenLazyProxy_whenReadOnlyTransaction_thenQueryRunsOnReplica() {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, List.of(replica1), RETRY_INTERVAL, clock));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        transactionTemplate.setReadOnly(true);
+        String readOnly = transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+        transactionTemplate.setReadOnly(false);
+        String readWrite = transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+
+        assertThat(readOnly).isEqualToIgnoringCase("replica1");
+        assertThat(readWrite).isEqualToIgnoringCase("primary");
+    }
+
+    @DisplayName("Junit test for keeping a replica whose pool is only exhausted in rotation")
+    @Test
+    public void givenExhaustedReplicaPool_whenGetConnection_thenFallBackWithoutSkippingIt() throws SQLException {
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setJdbcUrl("jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1");
+            pool.setUsername("sa");
+            pool.setMaximumPoolSize(1);
+            pool.setConnectionTimeout(250);
+            CountingDataSource busy = new CountingDataSource(pool);
+            ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(busy), RETRY_INTERVAL, clock);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+            try (Connection held = pool.getConnection()) {
+                assertThat(urlOf(routing)).contains("primary");
+                assertThat(urlOf(routing)).contains("primary");
+            }
+            assertThat(urlOf(routing)).contains("replica1");
+            assertThat(busy.attempts.get()).isEqualTo(3);
+        }
+    }
+
+    private static class CountingDataSource extends DelegatingDataSource {
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            attempts.incrementAndGet();
+            return super.getConnection();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2023-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
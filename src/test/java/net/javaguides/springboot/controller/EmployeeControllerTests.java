@@ -2,8 +2,22 @@ package net.javaguides.springboot.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.EmployeeBatchResult;
+import net.javaguides.springboot.dto.EmployeeFieldsPage;
+import net.javaguides.springboot.dto.EmployeeIngestionStatus;
+import net.javaguides.springboot.dto.EmployeeLookupResult;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeePatch;
+import net.javaguides.springboot.dto.EmployeeSlice;
+import net.javaguides.springboot.dto.IdempotentResponse;
+import net.javaguides.springboot.exception.DuplicateEmailException;
+import net.javaguides.springboot.exception.EmployeeVersionConflictException;
+import net.javaguides.springboot.exception.IdempotencyKeyReusedException;
+import net.javaguides.springboot.exception.UnknownEmployeeFieldException;
 import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeIngestionService;
 import net.javaguides.springboot.service.EmployeeService;
+import net.javaguides.springboot.service.IdempotencyService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -12,12 +26,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
@@ -25,7 +47,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
-@WebMvcTest
+@WebMvcTest(controllers = EmployeeController.class)
 public class EmployeeControllerTests {
 
     @Autowired
@@ -34,6 +56,12 @@ public class EmployeeControllerTests {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeIngestionService ingestionService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -62,6 +90,25 @@ public class EmployeeControllerTests {
                         "$.email", is(employee.getEmail())));
     }
 
+    @DisplayName("Junit test for create employee rest api with an existing email")
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturn409() throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .build();
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new DuplicateEmailException("Employee already exists with the given email: " + employee.getEmail()));
+
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
     @DisplayName("Junit test for get all employees rest api")
     @Test
     public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeesList() throws Exception {
@@ -170,13 +217,480 @@ public class EmployeeControllerTests {
 
     @DisplayName("Junit test for delete employee rest api")
     @Test
-    public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception{
+    public void givenEmployeeId_whenDeleteEmployee_thenReturn204() throws Exception{
+        long employeeId = 1L;
+        given(employeeService.deleteEmployee(employeeId)).willReturn(true);
+
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
+
+        response.andExpect(status().isNoContent())
+                .andDo(print());
+    }
+
+    @DisplayName("Junit test for delete employee rest api - negative scenario")
+    @Test
+    public void givenInvalidEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception{
         long employeeId = 1L;
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(false);
 
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
 
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @DisplayName("Junit test for bulk delete employees rest api")
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception{
+        given(employeeService.deleteEmployees(Set.of(1L, 2L, 3L))).willReturn(3);
+
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("ids", "1,2,3"));
+
         response.andExpect(status().isOk())
+                .andExpect(content().string("3 employees deleted."))
                 .andDo(print());
     }
+
+    @DisplayName("Junit test for bulk delete employees rest api with an empty id")
+    @Test
+    public void givenEmptyId_whenDeleteEmployees_thenReturn400() throws Exception{
+        mockMvc.perform(delete("/api/employees").param("ids", "1,,2"))
+                .andExpect(status().isBadRequest());
+
+        verify(employeeService, never()).deleteEmployees(any());
+    }
+
+    @DisplayName("Junit test for keyset paginated employees rest api")
+    @Test
+    public void givenAfterAndLimit_whenGetEmployeesPage_thenReturnPageWithNextCursor() throws Exception {
+        Employee employee = Employee.builder()
+                .id(5L)
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .build();
+        given(employeeService.getEmployeesAfter(4L, 1)).willReturn(new EmployeePage(List.of(employee), 5L));
+
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("after", "4")
+                .param("limit", "1"));
+
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is(5)));
+    }
+
+    @DisplayName("Junit test for streaming employees rest api")
+    @Test
+    public void givenListOfEmployees_whenStreamAllEmployees_thenReturnEmployeesArray() throws Exception {
+        List<Employee> listOfEmployees = List.of(
+                Employee.builder().firstName("Marcelo").lastName("Ungaretti").email("marcelo.ungaretti@gmail.com").build(),
+                Employee.builder().firstName("João").lastName("Silva").email("joao.silva@gmail.com").build());
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            listOfEmployees.forEach(consumer);
+            return null;
+        }).given(employeeService).streamAllEmployees(any());
+
+        MvcResult result = mockMvc.perform(get("/api/employees/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(listOfEmployees.size())))
+                .andExpect(jsonPath("$[1].email", is("joao.silva@gmail.com")));
+    }
+
+    @DisplayName("Junit test for batch create employees rest api")
+    @Test
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnPerItemResults() throws Exception {
+        List<Employee> listOfEmployees = List.of(
+                Employee.builder().firstName("Marcelo").lastName("Ungaretti").email("marcelo.ungaretti@gmail.com").build(),
+                Employee.builder().firstName("João").lastName("Silva").email("joao.silva@gmail.com").build());
+        given(employeeService.saveAll(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            return List.of(EmployeeBatchResult.created(0, employees.get(0)),
+                    EmployeeBatchResult.conflict(1, employees.get(1), "Employee already exists"));
+        });
+
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(listOfEmployees)));
+
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].status", is("CONFLICT")));
+    }
+
+    @DisplayName("Junit test for get employees by name rest api")
+    @Test
+    public void givenLastName_whenGetEmployeesByName_thenReturnSlice() throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .build();
+        given(employeeService.findEmployeesByName(null, "Ungaretti", 0, 20))
+                .willReturn(new EmployeeSlice(List.of(employee), 0, 20, false));
+
+        ResultActions response = mockMvc.perform(get("/api/employees/by-name")
+                .param("lastName", "Ungaretti"));
+
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @DisplayName("Junit test for patch employee rest api - positive scenario")
+    @Test
+    public void givenPatch_whenPatchEmployee_thenReturn204() throws Exception {
+        long employeeId = 1L;
+        EmployeePatch patch = new EmployeePatch(null, "Cainelli", null, null);
+        given(employeeService.patchEmployee(employeeId, patch)).willReturn(true);
+
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)));
+
+        response.andExpect(status().isNoContent())
+                .andDo(print());
+    }
+
+    @DisplayName("Junit test for patch employee rest api - negative scenario")
+    @Test
+    public void givenMissingEmployee_whenPatchEmployee_thenReturn404() throws Exception {
+        long employeeId = 1L;
+        EmployeePatch patch = new EmployeePatch(null, "Cainelli", null, null);
+        given(employeeService.patchEmployee(employeeId, patch)).willReturn(false);
+
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)));
+
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @DisplayName("Junit test for create employee rest api with write-behind ingestion")
+    @Test
+    public void givenIngestionEnabled_whenCreateEmployee_thenReturn202WithTrackingId() throws Exception {
+        UUID trackingId = UUID.randomUUID();
+        given(ingestionService.isEnabled()).willReturn(true);
+        given(ingestionService.submit(any(Employee.class))).willReturn(Optional.of(trackingId));
+
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Employee.builder()
+                        .firstName("Marcelo")
+                        .lastName("Ungaretti")
+                        .email("marcelo.ungaretti@email.com")
+                        .build())));
+
+        response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/employees/ingestion/" + trackingId))
+                .andExpect(jsonPath("$.trackingId", is(trackingId.toString())))
+                .andExpect(jsonPath("$.state", is("QUEUED")));
+        verify(employeeService, never()).saveEmployee(any(Employee.class));
+    }
+
+    @DisplayName("Junit test for create employee rest api when the ingestion queue is full")
+    @Test
+    public void givenFullIngestionQueue_whenCreateEmployee_thenReturn429() throws Exception {
+        given(ingestionService.isEnabled()).willReturn(true);
+        given(ingestionService.submit(any(Employee.class))).willReturn(Optional.empty());
+
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Employee.builder()
+                        .firstName("Marcelo")
+                        .lastName("Ungaretti")
+                        .email("marcelo.ungaretti@email.com")
+                        .build())));
+
+        response.andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @DisplayName("Junit test for get ingestion status rest api")
+    @Test
+    public void givenTrackingId_whenGetIngestionStatus_thenReturnStatusOr404() throws Exception {
+        UUID trackingId = UUID.randomUUID();
+        given(ingestionService.getStatus(any(UUID.class)))
+                .willReturn(Optional.empty());
+        given(ingestionService.getStatus(trackingId))
+                .willReturn(Optional.of(EmployeeIngestionStatus.created(trackingId, 7L)));
+
+        mockMvc.perform(get("/api/employees/ingestion/{trackingId}", trackingId))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("CREATED")))
+                .andExpect(jsonPath("$.employeeId", is(7)));
+        mockMvc.perform(get("/api/employees/ingestion/{trackingId}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Junit test for get all employees rest api with selected fields")
+    @Test
+    public void givenFields_whenGetAllEmployees_thenReturnOnlyRequestedFields() throws Exception {
+        given(employeeService.getAllEmployeeFields(List.of("id", "email")))
+                .willReturn(List.of(Map.of("id", 1L, "email", "marcelo.ungaretti@email.com")));
+
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "id,email"));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is("marcelo.ungaretti@email.com")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+    }
+
+    @DisplayName("Junit test for get employees page rest api with selected fields")
+    @Test
+    public void givenFieldsAndLimit_whenGetAllEmployees_thenReturnProjectedPage() throws Exception {
+        given(employeeService.getEmployeeFieldsAfter(List.of("email"), 4L, 1))
+                .willReturn(new EmployeeFieldsPage(List.of(Map.of("email", "marcelo.ungaretti@email.com")), 5L));
+
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("fields", "email")
+                .param("after", "4")
+                .param("limit", "1"));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.content[0].email", is("marcelo.ungaretti@email.com")))
+                .andExpect(jsonPath("$.nextCursor", is(5)));
+        verify(employeeService, never()).getAllEmployeeFields(any());
+    }
+
+    @DisplayName("Junit test for get all employees rest api with an unknown field")
+    @Test
+    public void givenUnknownField_whenGetAllEmployees_thenReturn400() throws Exception {
+        given(employeeService.getAllEmployeeFields(List.of("salary")))
+                .willThrow(new UnknownEmployeeFieldException("Unknown employee field: salary"));
+
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "salary"));
+
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Junit test for get employee by id rest api with a matching If-None-Match")
+    @Test
+    public void givenCurrentETag_whenGetEmployeeById_thenReturn304WithoutLoadingEmployee() throws Exception {
+        given(employeeService.getEmployeeVersion(1L)).willReturn(Optional.of(2L));
+
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", 1L)
+                .header("If-None-Match", "\"2\""));
+
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2\""));
+        verify(employeeService, never()).getEmployeeById(anyLong());
+    }
+
+    @DisplayName("Junit test for get employee by id rest api with a stale If-None-Match")
+    @Test
+    public void givenStaleETag_whenGetEmployeeById_thenReturnEmployeeWithETag() throws Exception {
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .version(3L)
+                .build();
+        given(employeeService.getEmployeeVersion(1L)).willReturn(Optional.of(3L));
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", 1L)
+                .header("If-None-Match", "\"2\""));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version", is(3)));
+    }
+
+    @DisplayName("Junit test for get all employees rest api with a matching If-None-Match")
+    @Test
+    public void givenCurrentCollectionETag_whenGetAllEmployees_thenReturn304() throws Exception {
+        given(employeeService.getEmployeesVersion()).willReturn(7L);
+
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .header("If-None-Match", "\"7\""));
+
+        response.andDo(print())
+                .andExpect(status().isNotModified());
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @DisplayName("Junit test for update employee rest api with a stale If-Match")
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+        Employee savedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .version(4L)
+                .build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(savedEmployee));
+
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", 1L)
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).updateEmployee(any(Employee.class));
+    }
+
+    @DisplayName("Junit test for delete employee rest api with If-Match")
+    @Test
+    public void givenIfMatch_whenDeleteEmployee_thenDeleteAtThatVersionOrReturn412() throws Exception {
+        given(employeeService.deleteEmployee(1L, 2L)).willReturn(true);
+        given(employeeService.deleteEmployee(1L, 1L))
+                .willThrow(new EmployeeVersionConflictException("Employee 1 is no longer at version 1"));
+
+        mockMvc.perform(delete("/api/employees/{id}", 1L).header("If-Match", "\"2\""))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/employees/{id}", 1L).header("If-Match", "\"1\""))
+                .andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).deleteEmployee(1L);
+    }
+
+    @DisplayName("Junit test for create employee rest api with a new Idempotency-Key")
+    @Test
+    public void givenNewIdempotencyKey_whenCreateEmployee_thenCreateAndRecordResponse() throws Exception {
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .build();
+        given(employeeService.saveEmployee(any(Employee.class))).willReturn(employee);
+        given(idempotencyService.execute(eq("key-1"), anyString(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<IdempotentResponse>>getArgument(2).get());
+
+        mockMvc.perform(post("/api/employees")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @DisplayName("Junit test for create employee rest api replaying an Idempotency-Key")
+    @Test
+    public void givenCompletedIdempotencyKey_whenCreateEmployee_thenReplayWithoutSaving() throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .build();
+        given(idempotencyService.execute(eq("key-1"), anyString(), any()))
+                .willReturn(new IdempotentResponse(201, null, "{\"id\":7,\"firstName\":\"Marcelo\"}"));
+        given(idempotencyService.execute(eq("key-2"), anyString(), any()))
+                .willThrow(new IdempotencyKeyReusedException("Idempotency-Key key-2 was used for a different request"));
+
+        mockMvc.perform(post("/api/employees")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is(7)));
+        mockMvc.perform(post("/api/employees")
+                        .header("Idempotency-Key", "key-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isUnprocessableEntity());
+        verify(employeeService, never()).saveEmployee(any(Employee.class));
+    }
+
+    @DisplayName("Junit test for multi-get employees rest api")
+    @Test
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnResultsInRequestOrder() throws Exception {
+        Employee employee = Employee.builder()
+                .id(3L)
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .build();
+        given(employeeService.getEmployeesByIds(List.of(3L, 9L)))
+                .willReturn(List.of(EmployeeLookupResult.found(employee), EmployeeLookupResult.notFound(9L)));
+
+        ResultActions response = mockMvc.perform(get("/api/employees").param("ids", "3,9"));
+
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].status", is("FOUND")))
+                .andExpect(jsonPath("$[0].employee.firstName", is("Marcelo")))
+                .andExpect(jsonPath("$[1].id", is(9)))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")));
+    }
+
+    @DisplayName("Junit test for multi-get employees rest api with too many ids")
+    @Test
+    public void givenTooManyIds_whenGetEmployeesByIds_thenReturn400() throws Exception {
+        String ids = String.join(",", Collections.nCopies(EmployeeController.MAX_PAGE_SIZE + 1, "1"));
+
+        mockMvc.perform(get("/api/employees").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        verify(employeeService, never()).getEmployeesByIds(anyList());
+    }
+
+    @DisplayName("Junit test for multi-get employees rest api with an empty id")
+    @Test
+    public void givenEmptyId_whenGetEmployeesByIds_thenReturn400() throws Exception {
+        mockMvc.perform(get("/api/employees").param("ids", "1,,2"))
+                .andExpect(status().isBadRequest());
+
+        verify(employeeService, never()).getEmployeesByIds(anyList());
+    }
+
+    @DisplayName("Junit test for update employee rest api leaving the cached employee untouched")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenUpdateACopy() throws Exception {
+        Employee cachedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Mara")
+                .lastName("Ungaretti")
+                .email("mara.ungaretti@email.com")
+                .version(2L)
+                .build();
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Cainelli")
+                .email("marcelo.cainelli@email.com")
+                .build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(cachedEmployee));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+
+        mockMvc.perform(put("/api/employees/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedEmployee)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Marcelo")))
+                .andExpect(jsonPath("$.version", is(2)));
+
+        verify(employeeService).updateEmployee(argThat(employee -> employee != cachedEmployee
+                && employee.getId() == 1L && employee.getVersion() == 2L));
+        assertThat(cachedEmployee.getFirstName()).isEqualTo("Mara");
+        assertThat(cachedEmployee.getEmail()).isEqualTo("mara.ungaretti@email.com");
+    }
 }
@@ -0,0 +1,118 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = EmployeeExportController.class)
+public class EmployeeExportControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    public void setup(){
+        List<Employee> employees = List.of(
+                Employee.builder().id(1L).firstName("Marcelo").lastName("Ungaretti").email("marcelo@email.com").build(),
+                Employee.builder().id(2L).firstName("João, Jr.").lastName("Sil\"va").email("joao@email.com").version(2L).build());
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employees.forEach(consumer);
+            return null;
+        }).given(employeeService).streamAllEmployees(any());
+    }
+
+    private MvcResult export(String format, String acceptEncoding) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/employees/export")
+                        .param("format", format)
+                        .header("Accept-Encoding", acceptEncoding))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    @DisplayName("Junit test for csv export rest api")
+    @Test
+    public void givenEmployees_whenExportCsv_thenReturnEscapedCsv() throws Exception {
+        MvcResult result = export("csv", "identity");
+
+        assertThat(result.getResponse().getContentType()).startsWith("text/csv");
+        assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,firstName,lastName,email,version\r\n" +
+                "1,Marcelo,Ungaretti,marcelo@email.com,0\r\n" +
+                "2,\"João, Jr.\",\"Sil\"\"va\",joao@email.com,2\r\n");
+    }
+
+    @DisplayName("Junit test for gzipped ndjson export rest api")
+    @Test
+    public void givenEmployees_whenExportNdjsonWithGzip_thenReturnOneJsonObjectPerLine() throws Exception {
+        MvcResult result = export("ndjson", "gzip, deflate");
+
+        assertThat(result.getResponse().getHeader("Content-Encoding")).isEqualTo("gzip");
+        String body = gunzip(result.getResponse().getContentAsByteArray());
+        assertThat(body.split("\n"))
+                .hasSize(2)
+                .allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        assertThat(body).endsWith("}\n").contains("\"email\":\"joao@email.com\"");
+    }
+
+    @DisplayName("Junit test for export rest api with gzip refused")
+    @Test
+    public void givenGzipWithZeroQuality_whenExportCsv_thenReturnUncompressedCsv() throws Exception {
+        MvcResult result = export("csv", "gzip;q=0, identity");
+
+        assertThat(result.getResponse().getHeader("Content-Encoding")).isNull();
+        assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .startsWith("id,firstName,lastName,email,version\r\n");
+    }
+
+    @DisplayName("Junit test for Accept-Encoding parsing of the export rest api")
+    @Test
+    public void givenAcceptEncodings_whenAcceptsGzip_thenOnlyGzipWithPositiveQuality(){
+        assertThat(EmployeeExportController.acceptsGzip("gzip")).isTrue();
+        assertThat(EmployeeExportController.acceptsGzip("deflate, GZIP ; q=0.5")).isTrue();
+        assertThat(EmployeeExportController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(EmployeeExportController.acceptsGzip("gzip; q=0.000")).isFalse();
+        assertThat(EmployeeExportController.acceptsGzip("x-gzip, deflate")).isFalse();
+        assertThat(EmployeeExportController.acceptsGzip(null)).isFalse();
+    }
+
+    @DisplayName("Junit test for export rest api with an unknown format")
+    @Test
+    public void givenUnknownFormat_whenExport_thenReturn400() throws Exception {
+        mockMvc.perform(get("/api/employees/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
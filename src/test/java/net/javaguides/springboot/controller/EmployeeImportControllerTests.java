@@ -0,0 +1,83 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+import net.javaguides.springboot.service.EmployeeImportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = EmployeeImportController.class)
+public class EmployeeImportControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeImportService importService;
+
+    @DisplayName("Junit test for csv import rest api")
+    @Test
+    public void givenCsvBody_whenImport_thenReturnSummary() throws Exception {
+        given(importService.importCsv(any(Reader.class))).willReturn(new EmployeeImportSummary(2, 1, 0,
+                List.of(new EmployeeImportSummary.RowError(3, "Employee already exists with the given email: a@b.com"))));
+
+        mockMvc.perform(post("/api/employees/import")
+                        .contentType("text/csv")
+                        .content("firstName,lastName,email\n"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted", is(2)))
+                .andExpect(jsonPath("$.duplicates", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(3)));
+    }
+
+    @DisplayName("Junit test for gzipped ndjson import rest api")
+    @Test
+    public void givenGzippedNdjsonBody_whenImport_thenDecompressBeforeParsing() throws Exception {
+        String ndjson = "{\"firstName\":\"Marcelo\",\"lastName\":\"Ungaretti\",\"email\":\"marcelo@email.com\"}\n";
+        given(importService.importNdjson(any(Reader.class))).willAnswer(invocation -> {
+            Reader reader = invocation.getArgument(0);
+            char[] buffer = new char[ndjson.length() + 1];
+            int read = reader.read(buffer);
+            return new EmployeeImportSummary(new String(buffer, 0, read).equals(ndjson) ? 1 : 0, 0, 0, List.of());
+        });
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(gzipped)) {
+            outputStream.write(ndjson.getBytes(StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(post("/api/employees/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("Content-Encoding", "gzip")
+                        .content(gzipped.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted", is(1)));
+    }
+
+    @DisplayName("Junit test for import rest api with an unsupported content type")
+    @Test
+    public void givenJsonBody_whenImport_thenReturn415() throws Exception {
+        mockMvc.perform(post("/api/employees/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
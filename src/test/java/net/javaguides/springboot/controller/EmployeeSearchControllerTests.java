@@ -0,0 +1,58 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.exception.InvalidCursorException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeSearchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = EmployeeSearchController.class)
+public class EmployeeSearchControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeSearchService searchService;
+
+    @DisplayName("Junit test for search employees rest api")
+    @Test
+    public void givenQuery_whenSearchEmployees_thenReturnPage() throws Exception {
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo@email.com")
+                .build();
+        given(searchService.search("mar", null, 100)).willReturn(new EmployeeSearchPage(List.of(employee), "next"));
+
+        mockMvc.perform(get("/api/employees/search").param("q", "mar").param("limit", "5000"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].firstName", is("Marcelo")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @DisplayName("Junit test for search employees rest api with an invalid cursor")
+    @Test
+    public void givenInvalidCursor_whenSearchEmployees_thenReturn400() throws Exception {
+        given(searchService.search("mar", "bad", 20)).willThrow(new InvalidCursorException("Invalid search cursor: bad"));
+
+        mockMvc.perform(get("/api/employees/search").param("q", "mar").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+}
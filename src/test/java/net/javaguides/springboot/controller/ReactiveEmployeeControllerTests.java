@@ -0,0 +1,147 @@
+package net.javaguides.springboot.controller;
+
+import net.javaguides.springboot.exception.EmployeeVersionConflictException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.ReactiveEmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@WebFluxTest(controllers = ReactiveEmployeeController.class)
+@ActiveProfiles("reactive")
+public class ReactiveEmployeeControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveEmployeeService employeeService;
+
+    @DisplayName("Junit test for reactive create employee rest api")
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> Mono.just(invocation.getArgument(0)));
+
+        webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder()
+                        .firstName("Marcelo")
+                        .lastName("Ungaretti")
+                        .email("marcelo.ungaretti@email.com")
+                        .build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Marcelo")
+                .jsonPath("$.email").isEqualTo("marcelo.ungaretti@email.com");
+    }
+
+    @DisplayName("Junit test for reactive get all employees rest api")
+    @Test
+    public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeesList() {
+        given(employeeService.getAllEmployees()).willReturn(Flux.just(
+                Employee.builder().id(1L).firstName("Marcelo").lastName("Ungaretti").email("marcelo@email.com").build(),
+                Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@email.com").build()));
+
+        webTestClient.get().uri("/api/employees")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Employee.class).hasSize(2);
+    }
+
+    @DisplayName("Junit test for reactive get employee by id rest api - negative scenario")
+    @Test
+    public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturn404() {
+        given(employeeService.getEmployeeById(1L)).willReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/employees/{id}", 1L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @DisplayName("Junit test for reactive update employee rest api - positive scenario")
+    @Test
+    public void givenUpdatedEmployee_whenUpdateEmployee_thenReturnUpdatedEmployee() {
+        given(employeeService.updateEmployee(eq(1L), any(Employee.class)))
+                .willAnswer((invocation) -> Mono.just(invocation.getArgument(1)));
+
+        webTestClient.put().uri("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder().firstName("Tony").lastName("Stark").email("tony@email.com").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.lastName").isEqualTo("Stark");
+    }
+
+    @DisplayName("Junit test for reactive delete employee rest api")
+    @Test
+    public void givenEmployeeId_whenDeleteEmployee_thenReturn204Or404() {
+        given(employeeService.deleteEmployee(1L)).willReturn(Mono.just(true));
+        given(employeeService.deleteEmployee(2L)).willReturn(Mono.just(false));
+
+        webTestClient.delete().uri("/api/employees/{id}", 1L)
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/employees/{id}", 2L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @DisplayName("Junit test for reactive update employee rest api with If-Match")
+    @Test
+    public void givenIfMatch_whenUpdateEmployee_thenUpdateAtThatVersionOrReturn412() {
+        Employee employee = Employee.builder().id(1L).firstName("Tony").lastName("Stark").email("tony@email.com").version(3L).build();
+        given(employeeService.updateEmployee(eq(1L), any(Employee.class), eq(2L))).willReturn(Mono.just(employee));
+        given(employeeService.updateEmployee(eq(1L), any(Employee.class), eq(1L)))
+                .willReturn(Mono.error(new EmployeeVersionConflictException("Employee 1 is no longer at version 1")));
+
+        webTestClient.put().uri("/api/employees/{id}", 1L)
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"3\"");
+        webTestClient.put().uri("/api/employees/{id}", 1L)
+                .header("If-Match", "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(employeeService, never()).updateEmployee(eq(1L), any(Employee.class));
+    }
+
+    @DisplayName("Junit test for reactive delete employee rest api with If-Match")
+    @Test
+    public void givenIfMatch_whenDeleteEmployee_thenDeleteAtThatVersionOrReturn412() {
+        given(employeeService.deleteEmployee(1L, 2L)).willReturn(Mono.just(true));
+        given(employeeService.deleteEmployee(1L, 1L))
+                .willReturn(Mono.error(new EmployeeVersionConflictException("Employee 1 is no longer at version 1")));
+
+        webTestClient.delete().uri("/api/employees/{id}", 1L)
+                .header("If-Match", "\"2\"")
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/employees/{id}", 1L)
+                .header("If-Match", "\"1\"")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(employeeService, never()).deleteEmployee(1L);
+    }
+}
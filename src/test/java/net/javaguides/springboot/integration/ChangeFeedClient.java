@@ -0,0 +1,82 @@
+package net.javaguides.springboot.integration;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Reads GET /api/employees/changes the way a browser's EventSource does.
+class ChangeFeedClient {
+
+    record ServerSentEvent(String id, String name, String data) {
+    }
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private final int port;
+
+    ChangeFeedClient(int port) {
+        this.port = port;
+    }
+
+    // Parses the stream on a background thread; the response returns once the subscription is registered.
+    BlockingQueue<ServerSentEvent> subscribe(String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/changes"))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        BlockingQueue<ServerSentEvent> events = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String id = null;
+                String name = null;
+                String data = null;
+                for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                    if (line.isEmpty()) {
+                        // Like EventSource, skip blocks without data, such as the opening comment.
+                        if (data != null) {
+                            events.add(new ServerSentEvent(id, name, data));
+                        }
+                        id = name = data = null;
+                    } else if (line.startsWith("id:")) {
+                        id = line.substring(3);
+                    } else if (line.startsWith("event:")) {
+                        name = line.substring(6);
+                    } else if (line.startsWith("data:")) {
+                        data = line.substring(5);
+                    }
+                }
+            } catch (Exception e) {
+                // The connection is dropped when the test ends.
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+        return events;
+    }
+
+    static List<ServerSentEvent> take(BlockingQueue<ServerSentEvent> events, int count) throws InterruptedException {
+        List<ServerSentEvent> taken = new ArrayList<>();
+        while (taken.size() < count) {
+            ServerSentEvent event = events.poll(10, TimeUnit.SECONDS);
+            assertThat(event).as("change event %d of %d", taken.size() + 1, count).isNotNull();
+            taken.add(event);
+        }
+        return taken;
+    }
+}
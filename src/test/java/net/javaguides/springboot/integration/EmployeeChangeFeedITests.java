@@ -0,0 +1,102 @@
+package net.javaguides.springboot.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.EmployeePatch;
+import net.javaguides.springboot.exception.DuplicateEmailException;
+import net.javaguides.springboot.integration.ChangeFeedClient.ServerSentEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeOutboxRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+import static net.javaguides.springboot.integration.ChangeFeedClient.take;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Runs on its own in-memory H2 database, whatever datasource the other integration tests use.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:changes;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "employee.changes.poll-interval=100ms"
+})
+public class EmployeeChangeFeedITests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ChangeFeedClient client() {
+        return new ChangeFeedClient(port);
+    }
+
+    @DisplayName("Integration test for the change feed following writes and resuming from Last-Event-ID")
+    @Test
+    public void givenWrites_whenStreamChanges_thenReceiveEachChangeAndResume() throws Exception {
+        BlockingQueue<ServerSentEvent> live = client().subscribe(null);
+
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.feed@email.com")
+                .build());
+        employeeService.patchEmployee(employee.getId(), new EmployeePatch("Mara", null, null, null));
+        employeeService.deleteEmployee(employee.getId());
+
+        List<ServerSentEvent> events = take(live, 3);
+        long first = Long.parseLong(events.get(0).id());
+        assertThat(events).extracting(ServerSentEvent::id)
+                .containsExactly(String.valueOf(first), String.valueOf(first + 1), String.valueOf(first + 2));
+        JsonNode created = objectMapper.readTree(events.get(0).data());
+        JsonNode patched = objectMapper.readTree(events.get(1).data());
+        JsonNode deleted = objectMapper.readTree(events.get(2).data());
+        assertThat(created.get("type").asText()).isEqualTo("CREATED");
+        assertThat(created.get("employee").get("email").asText()).isEqualTo("marcelo.feed@email.com");
+        assertThat(patched.get("type").asText()).isEqualTo("UPDATED");
+        assertThat(patched.get("employee").get("firstName").asText()).isEqualTo("Mara");
+        assertThat(deleted.get("type").asText()).isEqualTo("DELETED");
+        assertThat(deleted.get("id").asLong()).isEqualTo(employee.getId());
+        assertThat(deleted.get("employee").isNull()).isTrue();
+
+        // A reconnecting client gets only what came after the last event it saw.
+        List<ServerSentEvent> resumed = take(client().subscribe(String.valueOf(first)), 2);
+        assertThat(resumed).extracting(ServerSentEvent::id)
+                .containsExactly(String.valueOf(first + 1), String.valueOf(first + 2));
+    }
+
+    @DisplayName("Integration test for the outbox rolling back with a failed write")
+    @Test
+    public void givenFailedWrite_whenSaveEmployee_thenNoOutboxEvent() {
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ana")
+                .lastName("Souza")
+                .email("ana.feed@email.com")
+                .build());
+        long outboxEvents = outboxRepository.count();
+
+        assertThrows(DuplicateEmailException.class, () -> employeeService.saveEmployee(Employee.builder()
+                .firstName("Ana")
+                .lastName("Lima")
+                .email(employee.getEmail())
+                .build()));
+
+        assertThat(outboxRepository.count()).isEqualTo(outboxEvents);
+    }
+}
@@ -0,0 +1,85 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.dto.EmployeePatch;
+import net.javaguides.springboot.integration.ChangeFeedClient.ServerSentEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeOutboxRepository;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+import static net.javaguides.springboot.integration.ChangeFeedClient.take;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Every published event is past retention as soon as it is published, so each purge clears all it may.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:changes-purge;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "employee.changes.poll-interval=100ms",
+        "employee.changes.retention=0s",
+        "employee.changes.purge-interval=100ms"
+})
+public class EmployeeChangeFeedPurgeITests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeOutboxRepository outboxRepository;
+
+    private void awaitPurgedToHead() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (outboxRepository.count() > 1 || outboxRepository.findMaxPosition().isEmpty()) {
+            assertThat(System.currentTimeMillis()).as("outbox purged down to its head").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    @DisplayName("Integration test for resuming the change feed after everything has been purged")
+    @Test
+    public void givenPurgedOutbox_whenResumeChanges_thenResetOrContinueFromTheHead() throws Exception {
+        ChangeFeedClient client = new ChangeFeedClient(port);
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.purge@email.com")
+                .build());
+        employeeService.patchEmployee(employee.getId(), new EmployeePatch("Mara", null, null, null));
+        employeeService.deleteEmployee(employee.getId());
+        awaitPurgedToHead();
+        long head = outboxRepository.findMaxPosition().orElseThrow();
+
+        // Behind the purge: reset to just before what is left, then go on from there.
+        List<ServerSentEvent> behind = take(client.subscribe(String.valueOf(head - 2)), 2);
+        assertThat(behind).extracting(ServerSentEvent::name, ServerSentEvent::id)
+                .containsExactly(tuple("reset", String.valueOf(head - 1)), tuple(null, String.valueOf(head)));
+
+        // Caught up, or ahead of anything this feed has published.
+        BlockingQueue<ServerSentEvent> caughtUp = client.subscribe(String.valueOf(head));
+        BlockingQueue<ServerSentEvent> ahead = client.subscribe(String.valueOf(head + 5_000));
+        ServerSentEvent reset = take(ahead, 1).get(0);
+        assertThat(reset.name()).isEqualTo("reset");
+        assertThat(reset.id()).isEqualTo(String.valueOf(head));
+
+        // Positions carry on from the kept head instead of starting over.
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("Ana")
+                .lastName("Souza")
+                .email("ana.purge@email.com")
+                .build());
+        assertThat(take(caughtUp, 1)).extracting(ServerSentEvent::id).containsExactly(String.valueOf(head + 1));
+        assertThat(take(ahead, 1)).extracting(ServerSentEvent::id).containsExactly(String.valueOf(head + 1));
+    }
+}
@@ -0,0 +1,80 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.integration.ChangeFeedClient.ServerSentEvent;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.IntStream;
+
+import static net.javaguides.springboot.integration.ChangeFeedClient.take;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs on its own in-memory H2 database, whatever datasource the other integration tests use.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:changes-stall;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "employee.changes.poll-interval=100ms",
+        "employee.changes.batch-size=50",
+        "employee.changes.stall-timeout=1s"
+})
+public class EmployeeChangeFeedStallITests {
+
+    private static final int CHANGES = 300;
+
+    // Small socket buffers, so a client that stops reading blocks the server's writes after a few events.
+    @TestConfiguration
+    static class SmallSendBuffer {
+
+        @Bean
+        TomcatConnectorCustomizer smallSendBuffer() {
+            return connector -> connector.setProperty("socket.txBufSize", "4096");
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @DisplayName("Integration test for the change feed serving live clients while another one stops reading")
+    @Test
+    public void givenStalledSubscriber_whenWrite_thenOtherSubscribersKeepReceiving() throws Exception {
+        try (Socket stalled = new Socket()) {
+            stalled.setReceiveBufferSize(1024);
+            stalled.connect(new InetSocketAddress("localhost", port));
+            OutputStream request = stalled.getOutputStream();
+            // Replays the whole feed to a client that never reads a byte of it.
+            request.write(("GET /api/employees/changes HTTP/1.1\r\nHost: localhost\r\n" +
+                    "Accept: text/event-stream\r\nLast-Event-ID: 0\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            request.flush();
+            BlockingQueue<ServerSentEvent> live = new ChangeFeedClient(port).subscribe(null);
+
+            IntStream.range(0, CHANGES).forEach(i -> employeeService.saveEmployee(Employee.builder()
+                    .firstName("Marcelo")
+                    .lastName("Ungaretti")
+                    .email("marcelo.stall" + i + "@email.com")
+                    .build()));
+
+            List<ServerSentEvent> events = take(live, CHANGES);
+            assertThat(events).extracting(ServerSentEvent::name).containsOnlyNulls();
+            assertThat(events.get(CHANGES - 1).data()).contains("marcelo.stall" + (CHANGES - 1) + "@email.com");
+        }
+    }
+}
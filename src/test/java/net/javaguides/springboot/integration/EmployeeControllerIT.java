@@ -167,7 +167,7 @@ public class EmployeeControllerIT extends AbstractContainerBaseTest {
     }
 
     @Test
-    public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception{
+    public void givenEmployeeId_whenDeleteEmployee_thenReturn204() throws Exception{
         Employee savedEmployee = Employee.builder()
                 .firstName("Mara")
                 .lastName("Ungaretti")
@@ -177,7 +177,7 @@ public class EmployeeControllerIT extends AbstractContainerBaseTest {
 
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", savedEmployee.getId()));
 
-        response.andExpect(status().isOk())
+        response.andExpect(status().isNoContent())
                 .andDo(print());
     }
 }
@@ -1,6 +1,7 @@
 package net.javaguides.springboot.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.config.SqlStatementCountFilter;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.repository.EmployeeRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,17 +12,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultMatcher;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +48,16 @@ public class EmployeeControllerITests {
         employeeRepository.deleteAll();
     }
 
+    // Fails the test when an endpoint issues more SQL round trips than it is allowed to. Writes
+    // include their outbox insert and, once every 50 rows, its pooled sequence fetch.
+    private static ResultMatcher sqlStatementBudget(int maxStatements) {
+        return result -> {
+            String statements = result.getResponse().getHeader(SqlStatementCountFilter.HEADER);
+            assertThat(statements).as("SQL statement count header").isNotNull();
+            assertThat(Integer.parseInt(statements)).as("SQL statements issued").isLessThanOrEqualTo(maxStatements);
+        };
+    }
+
     @Test
     public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
         Employee employee = Employee.builder()
@@ -57,6 +72,7 @@ public class EmployeeControllerITests {
 
         response.andDo(print())
                 .andExpect(status().isCreated())
+                .andExpect(sqlStatementBudget(4))
                 .andExpect(jsonPath(
                         "$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath(
@@ -83,6 +99,7 @@ public class EmployeeControllerITests {
         ResultActions response = mockMvc.perform(get("/api/employees"));
 
         response.andExpect(status().isOk())
+                .andExpect(sqlStatementBudget(2))
                 .andDo(print())
                 .andExpect(jsonPath("$.size()",
                         is(listOfEmployees.size())));
@@ -100,6 +117,7 @@ public class EmployeeControllerITests {
         ResultActions response = mockMvc.perform(get("/api/employees/{id}", employee.getId()));
 
         response.andExpect(status().isOk())
+                .andExpect(sqlStatementBudget(1))
                 .andDo(print())
                 .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(employee.getLastName())))
@@ -119,6 +137,7 @@ public class EmployeeControllerITests {
         ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId));
 
         response.andExpect(status().isNotFound())
+                .andExpect(sqlStatementBudget(1))
                 .andDo(print());
     }
 
@@ -141,12 +160,43 @@ public class EmployeeControllerITests {
                 .content(objectMapper.writeValueAsString(updatedEmployee)));
 
         response.andExpect(status().isOk())
+                .andExpect(sqlStatementBudget(5))
                 .andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(updatedEmployee.getLastName())))
                 .andExpect(jsonPath("$.email", is(updatedEmployee.getEmail())))
                 .andDo(print());
     }
 
+    @Test
+    public void givenTakenEmail_whenUpdateEmployee_thenReturn409() throws Exception {
+        Employee savedEmployee = Employee.builder()
+                .firstName("Mara")
+                .lastName("Ungaretti")
+                .email("mara.ungaretti@email.com")
+                .build();
+        Employee otherEmployee = Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Cainelli")
+                .email("marcelo.cainelli@email.com")
+                .build();
+        employeeRepository.save(savedEmployee);
+        employeeRepository.save(otherEmployee);
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Mara")
+                .lastName("Ungaretti")
+                .email(otherEmployee.getEmail())
+                .build();
+
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        response.andExpect(status().isConflict())
+                .andDo(print());
+        assertThat(employeeRepository.findById(savedEmployee.getId()).orElseThrow().getEmail())
+                .isEqualTo(savedEmployee.getEmail());
+    }
+
     @Test
     public void givenUpdatedEmployee_whenUpdateEmployee_thenReturn404() throws Exception {
         long employeeId = 1L;
@@ -171,7 +221,7 @@ public class EmployeeControllerITests {
     }
 
     @Test
-    public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception{
+    public void givenEmployeeId_whenDeleteEmployee_thenReturn204() throws Exception{
         Employee savedEmployee = Employee.builder()
                 .firstName("Mara")
                 .lastName("Ungaretti")
@@ -181,7 +231,172 @@ public class EmployeeControllerITests {
 
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", savedEmployee.getId()));
 
-        response.andExpect(status().isOk())
+        response.andExpect(status().isNoContent())
+                .andExpect(sqlStatementBudget(3))
                 .andDo(print());
     }
+
+    @Test
+    public void givenETag_whenGetEmployeeByIdAgain_thenReturn304UntilEmployeeChanges() throws Exception {
+        Employee savedEmployee = Employee.builder()
+                .firstName("Mara")
+                .lastName("Ungaretti")
+                .email("mara.ungaretti@email.com")
+                .build();
+        employeeRepository.save(savedEmployee);
+
+        String etag = mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(sqlStatementBudget(1));
+
+        mockMvc.perform(patch("/api/employees/{id}", savedEmployee.getId())
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Marcelo\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Marcelo")));
+        mockMvc.perform(delete("/api/employees/{id}", savedEmployee.getId()).header("If-Match", etag))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void givenCollectionETag_whenGetAllEmployeesAgain_thenReturn304UntilAnEmployeeChanges() throws Exception {
+        String created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Mara\",\"lastName\":\"Ungaretti\",\"email\":\"mara.list@email.com\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        String etag = mockMvc.perform(get("/api/employees"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/employees").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(sqlStatementBudget(1));
+
+        mockMvc.perform(patch("/api/employees/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Marcelo\"}"))
+                .andExpect(status().isNoContent());
+        String patched = mockMvc.perform(get("/api/employees").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName", is("Marcelo")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(delete("/api/employees/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/employees").header("If-None-Match", patched))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(0)));
+        assertThat(patched).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void givenEmployeeWrittenThroughTheApi_whenSearch_thenIndexFollowsEachChange() throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Zacarias")
+                .lastName("Quintana")
+                .email("zacarias.quintana@email.com")
+                .build();
+        String created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readValue(created, Employee.class).getId();
+
+        mockMvc.perform(get("/api/employees/search").param("q", "zac quin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(1)))
+                .andExpect(jsonPath("$.content[0].email", is(employee.getEmail())))
+                .andExpect(sqlStatementBudget(0));
+
+        mockMvc.perform(patch("/api/employees/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastName\":\"Quiroga\"}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/employees/search").param("q", "zac quiroga"))
+                .andExpect(jsonPath("$.content.length()", is(1)))
+                .andExpect(jsonPath("$.content[0].lastName", is("Quiroga")));
+
+        mockMvc.perform(delete("/api/employees/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/employees/search").param("q", "quiroga"))
+                .andExpect(jsonPath("$.content.length()", is(0)));
+    }
+
+    @Test
+    public void givenIdempotencyKey_whenCreateEmployeeTwice_thenReplayFirstResponse() throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .build();
+        String body = objectMapper.writeValueAsString(employee);
+
+        String created = mockMvc.perform(post("/api/employees")
+                        .header("Idempotency-Key", "it-create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/employees")
+                        .header("Idempotency-Key", "it-create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(created, true))
+                .andExpect(sqlStatementBudget(0));
+
+        employee.setEmail("someone.else@email.com");
+        mockMvc.perform(post("/api/employees")
+                        .header("Idempotency-Key", "it-create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isUnprocessableEntity());
+        assertThat(employeeRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenOneQueryThenServedFromCache() throws Exception {
+        Employee first = employeeRepository.save(Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo.ungaretti@email.com")
+                .build());
+        Employee second = employeeRepository.save(Employee.builder()
+                .firstName("João")
+                .lastName("Silva")
+                .email("joao.silva@email.com")
+                .build());
+        long missingId = second.getId() + 1000;
+        String ids = second.getId() + "," + missingId + "," + first.getId();
+
+        mockMvc.perform(get("/api/employees").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementBudget(1))
+                .andDo(print())
+                .andExpect(jsonPath("$[0].employee.firstName", is("João")))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")))
+                .andExpect(jsonPath("$[2].employee.firstName", is("Marcelo")));
+
+        // Found employees are cached now; only the miss goes back to the database.
+        mockMvc.perform(get("/api/employees").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementBudget(1))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")));
+        mockMvc.perform(get("/api/employees").param("ids", first.getId() + "," + second.getId()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementBudget(0));
+    }
 }
@@ -0,0 +1,108 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Migrates a database that ddl-auto created before Employee had a version and a pooled sequence,
+// with the Flyway settings of the prod profile.
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + EmployeeFlywayBaselineITests.URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        // Emulates employees_seq with a table, as on MySQL, instead of using an H2 sequence.
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+        "spring.flyway.enabled=true",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1"
+})
+public class EmployeeFlywayBaselineITests {
+
+    static final String URL = "jdbc:h2:mem:baseline;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    // More than one id block, so a sequence left behind MAX(id) would hand out ids in use.
+    private static final int LEGACY_EMPLOYEES = 120;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    // Runs before the application context, and so before Flyway, is started.
+    @BeforeAll
+    public static void createLegacySchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE employees (id BIGINT NOT NULL AUTO_INCREMENT, "
+                    + "email VARCHAR(255) NOT NULL, first_name VARCHAR(255) NOT NULL, "
+                    + "last_name VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO employees (email, first_name, last_name) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < LEGACY_EMPLOYEES; i++) {
+                    insert.setString(1, "legacy" + i + "@gmail.com");
+                    insert.setString(2, "Legacy");
+                    insert.setString(3, "Employee" + i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Junit test for new employees after migrating a ddl-auto database")
+    public void givenLegacyEmployees_whenSaveEmployees_thenIdsFollowExistingOnes(){
+        List<Employee> employees = IntStream.range(0, 3)
+                .mapToObj(i -> Employee.builder()
+                        .firstName("New")
+                        .lastName("Employee" + i)
+                        .email("new" + i + "@gmail.com")
+                        .build())
+                .toList();
+
+        List<Employee> savedEmployees = employeeRepository.saveAll(employees);
+
+        assertThat(savedEmployees).allSatisfy(employee -> assertThat(employee.getId()).isGreaterThan(LEGACY_EMPLOYEES));
+        assertThat(employeeRepository.count()).isEqualTo(LEGACY_EMPLOYEES + 3);
+    }
+
+    @Test
+    @DisplayName("Junit test for updating a legacy employee after migrating a ddl-auto database")
+    public void givenLegacyEmployee_whenUpdateEmployee_thenVersionIncrements(){
+        Employee employee = employeeRepository.findById(1L).orElseThrow();
+        assertThat(employee.getVersion()).isZero();
+        employee.setFirstName("Updated");
+
+        Employee updatedEmployee = employeeRepository.saveAndFlush(employee);
+
+        assertThat(updatedEmployee.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Junit test for the email index after migrating a ddl-auto database")
+    public void givenLegacyEmail_whenSaveEmployee_thenThrowsException(){
+        Employee employee = Employee.builder()
+                .firstName("Duplicate")
+                .lastName("Employee")
+                .email("legacy0@gmail.com")
+                .build();
+
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(employee))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
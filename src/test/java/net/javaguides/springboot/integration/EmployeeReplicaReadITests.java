@@ -0,0 +1,80 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.dto.EmployeeLookupResult;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The replica is a separate in-memory database that never receives a write, like a replica
+// that has fallen far behind the primary.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicaprimary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "employee.datasource.replica-urls=" + EmployeeReplicaReadITests.REPLICA_URL
+})
+public class EmployeeReplicaReadITests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:laggingreplica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    // Runs before the application context is started, so the replica has the table from the start.
+    @BeforeAll
+    public static void createReplicaSchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE employees (id BIGINT NOT NULL, email VARCHAR(255) NOT NULL, "
+                    + "first_name VARCHAR(255) NOT NULL, last_name VARCHAR(255) NOT NULL, "
+                    + "version BIGINT NOT NULL, PRIMARY KEY (id))");
+        }
+    }
+
+    private Employee saveEmployee(String email) {
+        return employeeService.saveEmployee(Employee.builder()
+                .firstName("Ramesh")
+                .lastName("Fadatare")
+                .email(email)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Junit test for get employee by id operation with a lagging replica")
+    public void givenLaggingReplica_whenGetEmployeeById_thenReadsPrimary(){
+        Employee employee = saveEmployee("ramesh@gmail.com");
+
+        Optional<Employee> foundEmployee = employeeService.getEmployeeById(employee.getId());
+
+        assertThat(foundEmployee).isPresent();
+        assertThat(foundEmployee.get().getEmail()).isEqualTo("ramesh@gmail.com");
+        // The list is a read-only query, so it still goes to the replica.
+        assertThat(employeeService.getAllEmployees()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Junit test for get employees by ids operation with a lagging replica")
+    public void givenLaggingReplica_whenGetEmployeesByIds_thenReadsPrimary(){
+        Employee employee = saveEmployee("john@gmail.com");
+
+        List<EmployeeLookupResult> results = employeeService.getEmployeesByIds(List.of(employee.getId()));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).status()).isEqualTo(EmployeeLookupResult.Status.FOUND);
+        assertThat(results.get(0).employee().getEmail()).isEqualTo("john@gmail.com");
+    }
+}
@@ -0,0 +1,84 @@
+package net.javaguides.springboot.integration;
+
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+
+// Runs on its own in-memory H2 database, whatever datasource the other integration tests use.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:streaming;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class EmployeeStreamingITests {
+
+    // Far below Tomcat's 30s default, so the test does not have to outlast the real one.
+    private static final long CONTAINER_ASYNC_TIMEOUT_MILLIS = 1000;
+
+    @TestConfiguration
+    static class ShortContainerAsyncTimeout {
+
+        @Bean
+        TomcatConnectorCustomizer shortAsyncTimeout() {
+            return connector -> connector.setAsyncTimeout(CONTAINER_ASYNC_TIMEOUT_MILLIS);
+        }
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    public void setup(){
+        // A slow cursor: the first row arrives only after the container's async timeout has passed.
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            Thread.sleep(2 * CONTAINER_ASYNC_TIMEOUT_MILLIS);
+            consumer.accept(Employee.builder()
+                    .id(1L)
+                    .firstName("Marcelo")
+                    .lastName("Ungaretti")
+                    .email("marcelo@email.com")
+                    .build());
+            return null;
+        }).given(employeeService).streamAllEmployees(any());
+    }
+
+    @DisplayName("Integration test for an export that runs longer than the container's async timeout")
+    @Test
+    public void givenSlowExport_whenExportEmployees_thenStreamCompletes() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/employees/export", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("1,Marcelo,Ungaretti,marcelo@email.com,0");
+    }
+
+    @DisplayName("Integration test for a JSON stream that runs longer than the container's async timeout")
+    @Test
+    public void givenSlowStream_whenStreamAllEmployees_thenStreamCompletes() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/employees/stream", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("\"email\":\"marcelo@email.com\"");
+    }
+}
@@ -0,0 +1,51 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.model.EmployeeOutboxEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class EmployeeOutboxRepositoryTests {
+
+    @Autowired
+    private EmployeeOutboxRepository outboxRepository;
+
+    private final Instant createdAt = Instant.parse("2023-01-01T00:00:00Z");
+
+    private EmployeeOutboxEvent save(Long position) {
+        return outboxRepository.saveAndFlush(EmployeeOutboxEvent.builder()
+                .type(EmployeeChangedEvent.Type.DELETED)
+                .employeeId(1L)
+                .position(position)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    @DisplayName("Junit test for count changes operation across publishing and purging")
+    @Test
+    public void givenOutboxEvents_whenPublishAndPurge_thenCountChangesOnlyGrowsWithNewEvents() {
+        assertThat(outboxRepository.countChanges()).isZero();
+        EmployeeOutboxEvent first = save(null);
+        EmployeeOutboxEvent second = save(null);
+        assertThat(outboxRepository.countChanges()).isEqualTo(2);
+
+        first.setPosition(1L);
+        second.setPosition(2L);
+        outboxRepository.flush();
+        assertThat(outboxRepository.countChanges()).isEqualTo(2);
+
+        outboxRepository.deletePublishedBefore(createdAt.plusSeconds(1), outboxRepository.findMaxPosition().orElseThrow());
+        assertThat(outboxRepository.count()).isEqualTo(1);
+        assertThat(outboxRepository.countChanges()).isEqualTo(2);
+
+        save(null);
+        assertThat(outboxRepository.countChanges()).isEqualTo(3);
+    }
+}
@@ -3,15 +3,22 @@ package net.javaguides.springboot.repository;
 import net.javaguides.springboot.model.Employee;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @DataJpaTest
 public class EmployeeRepositoryTests {
@@ -146,4 +153,215 @@ public class EmployeeRepositoryTests {
 
         assertThat(savedEmployee).isNotNull();
     }
+
+    @DisplayName("Junit test for keyset pagination by id")
+    @Test
+    public void givenEmployeesList_whenFindByIdGreaterThan_thenReturnNextPage() {
+        Employee employee2 = Employee.builder()
+                .firstName("João")
+                .lastName("Silva")
+                .email("joao.silva@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee2);
+
+        List<Employee> employeesList = employeeRepository.findByIdGreaterThanOrderByIdAsc(employee.getId(), PageRequest.of(0, 10));
+
+        assertThat(employeesList).extracting(Employee::getId).containsExactly(employee2.getId());
+    }
+
+    @DisplayName("Junit test for streaming all employees ordered by id")
+    @Test
+    public void givenEmployeesList_whenStreamAll_thenReturnEmployeesInIdOrder() {
+        Employee employee2 = Employee.builder()
+                .firstName("João")
+                .lastName("Silva")
+                .email("joao.silva@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee2);
+
+        try (Stream<Employee> employees = employeeRepository.streamAllByOrderByIdAsc()) {
+            assertThat(employees.map(Employee::getId)).containsExactly(employee.getId(), employee2.getId());
+        }
+    }
+
+    @DisplayName("Junit test for finding which emails already exist")
+    @Test
+    public void givenEmails_whenFindExistingEmails_thenReturnOnlyStoredEmails() {
+        employeeRepository.save(employee);
+
+        List<String> existingEmails = employeeRepository.findExistingEmails(
+                List.of(employee.getEmail(), "joao.silva@gmail.com"));
+
+        assertThat(existingEmails).containsExactly(employee.getEmail());
+    }
+
+    @DisplayName("Junit test for the unique email index")
+    @Test
+    public void givenExistingEmail_whenSaveAndFlush_thenThrowsDataIntegrityViolation() {
+        employeeRepository.saveAndFlush(employee);
+        Employee duplicate = Employee.builder()
+                .firstName("Outro")
+                .lastName("Marcelo")
+                .email(employee.getEmail())
+                .build();
+
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining(Employee.EMAIL_INDEX.toUpperCase());
+    }
+
+    @DisplayName("Junit test for paginated search by first and last name")
+    @Test
+    public void givenEmployeesWithSameName_whenFindByName_thenReturnSlice() {
+        Employee homonym = Employee.builder()
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email("outro.marcelo@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(homonym);
+
+        Slice<Employee> firstPage = employeeRepository.findByName(employee.getFirstName(), employee.getLastName(),
+                PageRequest.of(0, 1, Sort.by("id")));
+
+        assertThat(firstPage.getContent()).extracting(Employee::getId).containsExactly(employee.getId());
+        assertThat(firstPage.hasNext()).isTrue();
+    }
+
+    @DisplayName("Junit test for paginated search by last name")
+    @Test
+    public void givenEmployees_whenFindByLastName_thenReturnMatchingSlice() {
+        Employee employee2 = Employee.builder()
+                .firstName("João")
+                .lastName("Silva")
+                .email("joao.silva@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee2);
+
+        Slice<Employee> employees = employeeRepository.findByLastName("Silva", PageRequest.of(0, 10));
+
+        assertThat(employees.getContent()).extracting(Employee::getEmail).containsExactly("joao.silva@gmail.com");
+        assertThat(employees.hasNext()).isFalse();
+    }
+
+    @DisplayName("Junit test for single-statement partial update")
+    @Test
+    public void givenPartialFields_whenPatch_thenOnlyThoseFieldsChangeAndVersionIncrements() {
+        employeeRepository.saveAndFlush(employee);
+
+        int updated = employeeRepository.patch(employee.getId(), null, "Cainelli", null, null);
+
+        Employee patchedEmployee = employeeRepository.findById(employee.getId()).get();
+        assertThat(updated).isEqualTo(1);
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Marcelo");
+        assertThat(patchedEmployee.getLastName()).isEqualTo("Cainelli");
+        assertThat(patchedEmployee.getVersion()).isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for partial update with a stale version")
+    @Test
+    public void givenStaleVersion_whenPatch_thenNothingIsUpdated() {
+        employeeRepository.saveAndFlush(employee);
+
+        int updated = employeeRepository.patch(employee.getId(), "Outro", null, null, 42L);
+
+        assertThat(updated).isZero();
+        assertThat(employeeRepository.findById(employee.getId()).get().getFirstName()).isEqualTo("Marcelo");
+    }
+
+    @DisplayName("Junit test for single-statement delete by id")
+    @Test
+    public void givenEmployeeObject_whenDeleteEmployeeById_thenReturnDeletedCount() {
+        employeeRepository.saveAndFlush(employee);
+
+        int deleted = employeeRepository.deleteEmployeeById(employee.getId());
+        int deletedAgain = employeeRepository.deleteEmployeeById(employee.getId());
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(deletedAgain).isZero();
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+    }
+
+    @DisplayName("Junit test for bulk delete by id set")
+    @Test
+    public void givenEmployeesList_whenDeleteEmployeesByIdIn_thenRemoveOnlyThoseEmployees() {
+        Employee employee2 = Employee.builder()
+                .firstName("João")
+                .lastName("Silva")
+                .email("joao.silva@gmail.com")
+                .build();
+        employeeRepository.saveAndFlush(employee);
+        employeeRepository.saveAndFlush(employee2);
+
+        List<Long> existing = employeeRepository.findIdsForDelete(List.of(employee.getId(), 999_999L));
+        int deleted = employeeRepository.deleteEmployeesByIdIn(existing);
+
+        assertThat(existing).containsExactly(employee.getId());
+        assertThat(deleted).isEqualTo(1);
+        assertThat(employeeRepository.findAll()).extracting(Employee::getId).containsExactly(employee2.getId());
+    }
+
+    @DisplayName("Junit test for find all fields operation.")
+    @Test
+    public void givenEmployees_whenFindAllFields_thenReturnOnlyRequestedFields() {
+        Employee employee1 = Employee.builder()
+                .firstName("João")
+                .lastName("Silva")
+                .email("joao.silva@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+
+        List<Map<String, Object>> rows = employeeRepository.findAllFields(List.of("id", "email"));
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "email")
+                .containsEntry("id", employee.getId())
+                .containsEntry("email", employee.getEmail());
+        assertThat(rows.get(1)).containsEntry("email", employee1.getEmail());
+    }
+
+    @DisplayName("Junit test for find fields after operation.")
+    @Test
+    public void givenEmployees_whenFindFieldsAfter_thenReturnNextRowsById() {
+        Employee employee1 = Employee.builder()
+                .firstName("João")
+                .lastName("Silva")
+                .email("joao.silva@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("Maria")
+                .lastName("Souza")
+                .email("maria.souza@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+        employeeRepository.save(employee2);
+
+        List<Map<String, Object>> rows = employeeRepository.findFieldsAfter(List.of("email"), employee.getId(), 1);
+
+        assertThat(rows).containsExactly(Map.of("email", employee1.getEmail()));
+    }
+
+    @DisplayName("Junit test for find version by id operation.")
+    @Test
+    public void givenEmployee_whenFindVersionById_thenReturnVersion() {
+        employeeRepository.saveAndFlush(employee);
+
+        assertThat(employeeRepository.findVersionById(employee.getId())).contains(0L);
+        assertThat(employeeRepository.findVersionById(employee.getId() + 1)).isEmpty();
+    }
+
+    @DisplayName("Junit test for delete employee by id and version operation.")
+    @Test
+    public void givenStaleVersion_whenDeleteEmployeeByIdAndVersion_thenNothingIsDeleted() {
+        employeeRepository.saveAndFlush(employee);
+
+        assertThat(employeeRepository.deleteEmployeeByIdAndVersion(employee.getId(), 1L)).isZero();
+        assertThat(employeeRepository.deleteEmployeeByIdAndVersion(employee.getId(), 0L)).isEqualTo(1);
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+    }
 }
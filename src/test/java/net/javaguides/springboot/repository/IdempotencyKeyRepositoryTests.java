@@ -0,0 +1,89 @@
+package net.javaguides.springboot.repository;
+
+import net.javaguides.springboot.dto.IdempotencyRecord;
+import net.javaguides.springboot.dto.IdempotentResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The writes commit in their own transactions, so the tests run without the usual test transaction.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IdempotencyKeyRepositoryTests {
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private final Instant leaseEnd = now.plusSeconds(30);
+
+    @BeforeEach
+    public void setup() {
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @DisplayName("Junit test for insert operation with a key that is already taken")
+    @Test
+    public void givenReservedKey_whenInsert_thenThrowsException() {
+        idempotencyKeyRepository.insert("key-1", "hash", now, leaseEnd);
+
+        assertThatThrownBy(() -> idempotencyKeyRepository.insert("key-1", "other-hash", now, leaseEnd))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(idempotencyKeyRepository.findRecord("key-1", now, now))
+                .contains(new IdempotencyRecord("hash", null));
+    }
+
+    @DisplayName("Junit test for complete and release operations")
+    @Test
+    public void givenInFlightKey_whenCompleteThenRelease_thenKeepTheResponse() {
+        idempotencyKeyRepository.insert("key-1", "hash", now, leaseEnd);
+
+        idempotencyKeyRepository.complete("key-1", 201, null, "{\"id\":1}");
+        int released = idempotencyKeyRepository.release("key-1");
+
+        assertThat(released).isZero();
+        assertThat(idempotencyKeyRepository.findRecord("key-1", now, now))
+                .contains(new IdempotencyRecord("hash", new IdempotentResponse(201, null, "{\"id\":1}")));
+    }
+
+    @DisplayName("Junit test for expired keys")
+    @Test
+    public void givenExpiredKey_whenFindRecord_thenReturnEmptyUntilDeleted() {
+        idempotencyKeyRepository.insert("old", "hash", now.minusSeconds(60), leaseEnd);
+        idempotencyKeyRepository.insert("new", "hash", now, leaseEnd);
+
+        assertThat(idempotencyKeyRepository.findRecord("old", now, now)).isEmpty();
+        assertThat(idempotencyKeyRepository.deleteExpired("new", now, now)).isZero();
+        assertThat(idempotencyKeyRepository.deleteAllExpired(now)).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.findAll()).hasSize(1);
+    }
+
+    @DisplayName("Junit test for an in-flight key whose lease has run out")
+    @Test
+    public void givenExpiredLease_whenFindRecord_thenReturnEmptyAndLetANewRequestTakeOver() {
+        idempotencyKeyRepository.insert("abandoned", "hash", now.minusSeconds(60), now.minusSeconds(30));
+        idempotencyKeyRepository.insert("done", "hash", now.minusSeconds(60), now.minusSeconds(30));
+        idempotencyKeyRepository.complete("done", 201, null, "{\"id\":1}");
+        Instant notBefore = now.minusSeconds(3600);
+
+        assertThat(idempotencyKeyRepository.findRecord("abandoned", notBefore, now)).isEmpty();
+        assertThat(idempotencyKeyRepository.findRecord("done", notBefore, now)).isPresent();
+        assertThat(idempotencyKeyRepository.deleteExpired("done", notBefore, now)).isZero();
+        assertThat(idempotencyKeyRepository.deleteExpired("abandoned", notBefore, now)).isEqualTo(1);
+        idempotencyKeyRepository.insert("abandoned", "other-hash", now, leaseEnd);
+        assertThat(idempotencyKeyRepository.findRecord("abandoned", notBefore, now))
+                .contains(new IdempotencyRecord("other-hash", null));
+    }
+}
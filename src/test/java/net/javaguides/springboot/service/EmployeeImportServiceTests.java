@@ -0,0 +1,147 @@
+package net.javaguides.springboot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.springboot.dto.EmployeeBatchResult;
+import net.javaguides.springboot.dto.EmployeeImportSummary;
+import net.javaguides.springboot.exception.DuplicateEmailException;
+import net.javaguides.springboot.exception.InvalidEmployeeException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.impl.EmployeeImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeImportServiceTests {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private EmployeeImportServiceImpl importService;
+
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    public void setup(){
+        importService = new EmployeeImportServiceImpl(employeeService, new ObjectMapper(), 2);
+    }
+
+    // Every row is created except emails starting with "taken", which already exist.
+    private void givenSaveAllReportsTakenEmails() {
+        given(employeeService.saveAll(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            chunkSizes.add(employees.size());
+            return IntStream.range(0, employees.size())
+                    .mapToObj(i -> employees.get(i).getEmail().startsWith("taken")
+                            ? EmployeeBatchResult.conflict(i, employees.get(i), "Employee already exists with the given email: " + employees.get(i).getEmail())
+                            : EmployeeBatchResult.created(i, employees.get(i)))
+                    .toList();
+        });
+    }
+
+    @DisplayName("Junit test for importCsv method")
+    @Test
+    public void givenCsv_whenImportCsv_thenInsertInChunksAndSummarize() throws Exception {
+        givenSaveAllReportsTakenEmails();
+        String csv = "id,firstName,lastName,email,version\r\n" +
+                "1,Marcelo,Ungaretti,marcelo@email.com,0\r\n" +
+                "2,\"João, Jr.\",\"Sil\"\"va\",joao@email.com,0\r\n" +
+                "\r\n" +
+                "3,Ana,Souza,taken@email.com,0\n" +
+                "4,Bad,Row,not-an-email,0\n" +
+                "5,Too,Few\n";
+
+        EmployeeImportSummary summary = importService.importCsv(new StringReader(csv));
+
+        assertThat(summary.inserted()).isEqualTo(2);
+        assertThat(summary.duplicates()).isEqualTo(1);
+        assertThat(summary.invalid()).isEqualTo(2);
+        assertThat(summary.errors())
+                .extracting(EmployeeImportSummary.RowError::row)
+                .containsExactlyInAnyOrder(3L, 4L, 5L);
+        assertThat(chunkSizes).containsExactly(2, 1);
+    }
+
+    @DisplayName("Junit test for importCsv method with quoted line breaks")
+    @Test
+    public void givenQuotedLineBreak_whenImportCsv_thenKeepItInTheField() throws Exception {
+        givenSaveAllReportsTakenEmails();
+        String csv = "firstName,lastName,email\n\"Mar\ncelo\",Ungaretti,marcelo@email.com\n";
+
+        EmployeeImportSummary summary = importService.importCsv(new StringReader(csv));
+
+        assertThat(summary.inserted()).isEqualTo(1);
+        assertThat(summary.invalid()).isZero();
+    }
+
+    @DisplayName("Junit test for importCsv method without the required columns")
+    @Test
+    public void givenCsvWithoutEmailColumn_whenImportCsv_thenThrowsException(){
+        assertThrows(InvalidEmployeeException.class, () ->
+                importService.importCsv(new StringReader("firstName,lastName\nMarcelo,Ungaretti\n")));
+
+        verify(employeeService, never()).saveAll(anyList());
+    }
+
+    @DisplayName("Junit test for importNdjson method")
+    @Test
+    public void givenNdjson_whenImportNdjson_thenIgnoreIdsAndReportMalformedLines() throws Exception {
+        givenSaveAllReportsTakenEmails();
+        String ndjson = "{\"id\":42,\"firstName\":\"Marcelo\",\"lastName\":\"Ungaretti\",\"email\":\"marcelo@email.com\"}\n" +
+                "{\"firstName\":\"João\",\n" +
+                "\n" +
+                "{\"firstName\":\"Ana\",\"lastName\":\"Souza\",\"email\":\"taken@email.com\"}\n";
+
+        EmployeeImportSummary summary = importService.importNdjson(new StringReader(ndjson));
+
+        assertThat(summary.inserted()).isEqualTo(1);
+        assertThat(summary.duplicates()).isEqualTo(1);
+        assertThat(summary.invalid()).isEqualTo(1);
+        assertThat(summary.errors().get(0).row()).isEqualTo(2);
+        verify(employeeService, times(1)).saveAll(anyList());
+    }
+
+    @DisplayName("Junit test for importCsv method when the chunk keeps losing email races")
+    @Test
+    public void givenRepeatedDuplicateEmailRaces_whenImportCsv_thenInsertRowByRowAndReportConflicts() throws Exception {
+        given(employeeService.saveAll(anyList()))
+                .willThrow(new DuplicateEmailException("Employee already exists with one of the given emails"));
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().startsWith("taken")) {
+                throw new DuplicateEmailException("Employee already exists with the given email: " + employee.getEmail());
+            }
+            return employee;
+        });
+        String csv = "firstName,lastName,email\n" +
+                "Marcelo,Ungaretti,marcelo@email.com\n" +
+                "Ana,Souza,taken@email.com\n" +
+                "Tony,Stark,tony@email.com\n";
+
+        EmployeeImportSummary summary = importService.importCsv(new StringReader(csv));
+
+        assertThat(summary.inserted()).isEqualTo(2);
+        assertThat(summary.duplicates()).isEqualTo(1);
+        assertThat(summary.errors())
+                .extracting(EmployeeImportSummary.RowError::row)
+                .containsExactly(2L);
+        verify(employeeService, times(4)).saveAll(anyList());
+    }
+}
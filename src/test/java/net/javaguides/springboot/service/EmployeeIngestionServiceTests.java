@@ -0,0 +1,172 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.EmployeeBatchResult;
+import net.javaguides.springboot.dto.EmployeeIngestionStatus;
+import net.javaguides.springboot.exception.DuplicateEmailException;
+import net.javaguides.springboot.exception.InvalidEmployeeException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.impl.EmployeeIngestionServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeIngestionServiceTests {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private EmployeeIngestionServiceImpl ingestionService;
+
+    @AfterEach
+    public void tearDown(){
+        if (ingestionService != null && ingestionService.isRunning()) {
+            ingestionService.stop();
+        }
+    }
+
+    private EmployeeIngestionServiceImpl ingestionService(boolean enabled, int queueCapacity) {
+        ingestionService = new EmployeeIngestionServiceImpl(employeeService, enabled, queueCapacity, 100, Duration.ofSeconds(5));
+        ingestionService.start();
+        return ingestionService;
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email(email)
+                .build();
+    }
+
+    @DisplayName("Junit test for submit method which drains the queue on stop")
+    @Test
+    public void givenSubmittedEmployees_whenStop_thenAllAreWritten(){
+        AtomicLong ids = new AtomicLong();
+        given(employeeService.saveAll(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            return employees.stream()
+                    .map(employee -> {
+                        employee.setId(ids.incrementAndGet());
+                        return EmployeeBatchResult.created(employees.indexOf(employee), employee);
+                    })
+                    .toList();
+        });
+        EmployeeIngestionServiceImpl service = ingestionService(true, 100);
+
+        List<UUID> trackingIds = List.of(
+                service.submit(employee("first@email.com")).orElseThrow(),
+                service.submit(employee("second@email.com")).orElseThrow(),
+                service.submit(employee("third@email.com")).orElseThrow());
+        service.stop();
+
+        assertThat(trackingIds)
+                .map(trackingId -> service.getStatus(trackingId).orElseThrow().state())
+                .containsOnly(EmployeeIngestionStatus.State.CREATED);
+        assertThat(service.submit(employee("late@email.com"))).isEmpty();
+    }
+
+    @DisplayName("Junit test for submit method when a batch fails and rows are retried one by one")
+    @Test
+    public void givenConflictingBatch_whenDrained_thenOnlyTheDuplicateFails(){
+        given(employeeService.saveAll(anyList())).willThrow(new DuplicateEmailException("Employee already exists with one of the given emails"));
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("taken@email.com")) {
+                throw new DuplicateEmailException("Employee already exists with the given email: taken@email.com");
+            }
+            employee.setId(1L);
+            return employee;
+        });
+        EmployeeIngestionServiceImpl service = ingestionService(true, 100);
+
+        UUID created = service.submit(employee("free@email.com")).orElseThrow();
+        UUID conflict = service.submit(employee("taken@email.com")).orElseThrow();
+        service.stop();
+
+        assertThat(service.getStatus(created).orElseThrow().state()).isEqualTo(EmployeeIngestionStatus.State.CREATED);
+        assertThat(service.getStatus(conflict).orElseThrow().state()).isEqualTo(EmployeeIngestionStatus.State.CONFLICT);
+    }
+
+    @DisplayName("Junit test for submit method when the failed batch already assigned ids")
+    @Test
+    public void givenBatchFailingAfterIdAssignment_whenDrained_thenRetryInsertsNewRows(){
+        given(employeeService.saveAll(anyList())).willAnswer(invocation -> {
+            // Like Hibernate, ids are drawn before the flush fails and the transaction rolls back.
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setId(41L));
+            throw new DuplicateEmailException("Employee already exists with one of the given emails");
+        });
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            // A non-zero id would be merged as a detached row that no longer exists.
+            assertThat(employee.getId()).isZero();
+            employee.setId(42L);
+            return employee;
+        });
+        EmployeeIngestionServiceImpl service = ingestionService(true, 100);
+
+        UUID trackingId = service.submit(employee("free@email.com")).orElseThrow();
+        service.stop();
+
+        EmployeeIngestionStatus status = service.getStatus(trackingId).orElseThrow();
+        assertThat(status.state()).isEqualTo(EmployeeIngestionStatus.State.CREATED);
+        assertThat(status.employeeId()).isEqualTo(42L);
+    }
+
+    @DisplayName("Junit test for submit method when the queue is full")
+    @Test
+    public void givenFullQueue_whenSubmit_thenReturnEmpty() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.saveAll(anyList())).willAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return List.of();
+        });
+        EmployeeIngestionServiceImpl service = ingestionService(true, 1);
+
+        assertThat(service.submit(employee("first@email.com"))).isPresent();
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.submit(employee("second@email.com"))).isPresent();
+        Optional<UUID> rejected = service.submit(employee("third@email.com"));
+        release.countDown();
+
+        assertThat(rejected).isEmpty();
+    }
+
+    @DisplayName("Junit test for submit method with an invalid payload")
+    @Test
+    public void givenInvalidEmployee_whenSubmit_thenThrowsException(){
+        EmployeeIngestionServiceImpl service = ingestionService(true, 10);
+
+        assertThrows(InvalidEmployeeException.class, () -> service.submit(employee("not-an-email")));
+        assertThrows(InvalidEmployeeException.class, () -> service.submit(Employee.builder().email("a@b.com").build()));
+    }
+
+    @DisplayName("Junit test for submit method when ingestion is disabled")
+    @Test
+    public void givenIngestionDisabled_whenSubmit_thenReturnEmpty(){
+        EmployeeIngestionServiceImpl service = ingestionService(false, 10);
+
+        assertThat(service.isEnabled()).isFalse();
+        assertThat(service.submit(employee("first@email.com"))).isEmpty();
+    }
+}
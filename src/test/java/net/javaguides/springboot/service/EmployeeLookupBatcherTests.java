@@ -0,0 +1,96 @@
+package net.javaguides.springboot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot.config.MetricsConfig;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.impl.EmployeeLookupBatcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeLookupBatcherTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static Employee employee(long id) {
+        return Employee.builder()
+                .id(id)
+                .firstName("Marcelo")
+                .lastName("Ungaretti")
+                .email("marcelo" + id + "@email.com")
+                .build();
+    }
+
+    @DisplayName("Junit test for findById method which batches concurrent lookups")
+    @Test
+    public void givenConcurrentLookups_whenFindById_thenIssueOneFindAllById() throws Exception {
+        // A long window: the batch can only go out because it fills up.
+        EmployeeLookupBatcher batcher = new EmployeeLookupBatcher(employeeRepository, meterRegistry, Duration.ofSeconds(30), 4);
+        given(employeeRepository.findAllById(anyIterable())).willReturn(List.of(employee(1L), employee(2L), employee(4L)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<Employee>>> lookups = LongStream.rangeClosed(1, 4)
+                    .mapToObj(id -> executor.submit(() -> batcher.findById(id)))
+                    .toList();
+
+            assertThat(lookups.get(0).get().map(Employee::getId)).contains(1L);
+            assertThat(lookups.get(1).get().map(Employee::getId)).contains(2L);
+            assertThat(lookups.get(2).get()).isEmpty();
+            assertThat(lookups.get(3).get().map(Employee::getId)).contains(4L);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(employeeRepository, times(1)).findAllById(anyIterable());
+        assertThat(meterRegistry.summary(MetricsConfig.LOOKUP_BATCH_SIZE).totalAmount()).isEqualTo(4);
+    }
+
+    @DisplayName("Junit test for findById method which propagates repository failures")
+    @Test
+    public void givenRepositoryFailure_whenFindById_thenThrow(){
+        EmployeeLookupBatcher batcher = new EmployeeLookupBatcher(employeeRepository, meterRegistry, Duration.ofMillis(1), 100);
+        given(employeeRepository.findAllById(anyIterable())).willThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> batcher.findById(1L));
+    }
+
+    @DisplayName("Junit test for findById method inside a transaction")
+    @Test
+    public void givenActiveTransaction_whenFindById_thenBypassTheBatch(){
+        EmployeeLookupBatcher batcher = new EmployeeLookupBatcher(employeeRepository, meterRegistry, Duration.ofSeconds(30), 100);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee(1L)));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(batcher.findById(1L)).isPresent();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        verify(employeeRepository, never()).findAllById(anyIterable());
+    }
+}
@@ -0,0 +1,133 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.EmployeeSearchPage;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.exception.InvalidCursorException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.impl.EmployeeSearchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSearchServiceTests {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeSearchServiceImpl searchService;
+
+    @BeforeEach
+    public void setup(){
+        List<Employee> employees = List.of(
+                employee(1L, "Marcelo", "Ungaretti", "marcelo.ungaretti@email.com"),
+                employee(2L, "João", "Marques", "joao.marques@email.com"),
+                employee(3L, "Ana", "Souza", "ana.souza@email.com"),
+                employee(4L, "Mariana", "Ungaretti", "mariana@email.com"));
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employees.forEach(consumer);
+            return null;
+        }).given(employeeService).streamAllEmployees(any());
+
+        searchService = new EmployeeSearchServiceImpl(employeeService, employeeRepository);
+        searchService.start();
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String email) {
+        return Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .build();
+    }
+
+    private static List<Long> ids(EmployeeSearchPage page) {
+        return page.content().stream().map(Employee::getId).toList();
+    }
+
+    @DisplayName("Junit test for search method with a prefix")
+    @Test
+    public void givenPrefix_whenSearch_thenReturnEachMatchOnceInTokenOrder(){
+        EmployeeSearchPage page = searchService.search("mar", null, 10);
+
+        // João matches through "marques", the others through "marcelo" and "mariana"
+        assertThat(ids(page)).containsExactly(1L, 4L, 2L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @DisplayName("Junit test for search method with several terms, accents and email parts")
+    @Test
+    public void givenSeveralTerms_whenSearch_thenEveryTermMustMatch(){
+        assertThat(ids(searchService.search("Ungar MARI", null, 10))).containsExactly(4L);
+        assertThat(ids(searchService.search("joão", null, 10))).containsExactly(2L);
+        assertThat(ids(searchService.search("joao.marq", null, 10))).containsExactly(2L);
+        assertThat(ids(searchService.search("  ", null, 10))).isEmpty();
+    }
+
+    @DisplayName("Junit test for search method paging with a cursor")
+    @Test
+    public void givenLimit_whenSearch_thenContinueFromCursor(){
+        EmployeeSearchPage first = searchService.search("mar", null, 2);
+        EmployeeSearchPage second = searchService.search("mar", first.nextCursor(), 2);
+
+        assertThat(ids(first)).containsExactly(1L, 4L);
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(ids(second)).containsExactly(2L);
+        assertThat(second.nextCursor()).isNull();
+        assertThrows(InvalidCursorException.class, () -> searchService.search("ana", first.nextCursor(), 2));
+        assertThrows(InvalidCursorException.class, () -> searchService.search("mar", "%%%", 2));
+    }
+
+    @DisplayName("Junit test for keeping the search index in sync with change events")
+    @Test
+    public void givenChangeEvents_whenSearch_thenReflectTheLatestState(){
+        Employee renamed = employee(3L, "Ana", "Marinho", "ana.marinho@email.com");
+        renamed.setVersion(1L);
+        Employee stale = employee(3L, "Ana", "Souza", "ana.souza@email.com");
+        given(employeeRepository.findById(4L)).willReturn(Optional.empty());
+
+        searchService.onEmployeeChanged(EmployeeChangedEvent.updated(renamed));
+        searchService.onEmployeeChanged(EmployeeChangedEvent.updated(stale));
+        searchService.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+        searchService.onEmployeeChanged(EmployeeChangedEvent.patched(4L));
+        searchService.onEmployeeChanged(EmployeeChangedEvent.created(employee(5L, "Marta", "Lima", "marta@email.com")));
+
+        assertThat(ids(searchService.search("mar", null, 10))).containsExactly(3L, 2L, 5L);
+        assertThat(ids(searchService.search("souza", null, 10))).isEmpty();
+    }
+
+    @DisplayName("Junit test for ignoring change events that arrive after the delete")
+    @Test
+    public void givenLateEventsAfterDelete_whenSearch_thenEmployeeStaysDeleted(){
+        Employee updated = employee(1L, "Marcelo", "Ungaretti", "marcelo.ungaretti@email.com");
+        updated.setVersion(1L);
+        given(employeeRepository.findById(3L)).willReturn(Optional.empty());
+
+        searchService.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+        searchService.onEmployeeChanged(EmployeeChangedEvent.updated(updated));
+        searchService.onEmployeeChanged(EmployeeChangedEvent.patched(3L));
+        searchService.onEmployeeChanged(EmployeeChangedEvent.updated(employee(3L, "Ana", "Souza", "ana.souza@email.com")));
+
+        assertThat(ids(searchService.search("ungaretti", null, 10))).containsExactly(4L);
+        assertThat(ids(searchService.search("ana", null, 10))).isEmpty();
+    }
+}
@@ -0,0 +1,203 @@
+package net.javaguides.springboot.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import net.javaguides.springboot.config.CachingConfig;
+import net.javaguides.springboot.config.MetricsConfig;
+import net.javaguides.springboot.config.SingleFlightAspect;
+import net.javaguides.springboot.dto.EmployeeLookupResult;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.repository.EmployeeOutboxRepository;
+import net.javaguides.springboot.repository.EmployeeRepository;
+import net.javaguides.springboot.service.impl.EmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringJUnitConfig(EmployeeServiceCachingTests.Config.class)
+public class EmployeeServiceCachingTests {
+
+    // Not @Configuration: the application's component scan would pick it up in benchmarks.
+    @EnableAspectJAutoProxy
+    @Import({CachingConfig.class, SingleFlightAspect.class, EmployeeServiceImpl.class})
+    static class Config {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager(CachingConfig.EMPLOYEES_CACHE);
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    @MockBean
+    private EmployeeOutboxRepository outboxRepository;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        cacheManager.getCache(CachingConfig.EMPLOYEES_CACHE).clear();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Marcelo")
+                .lastName("Cainelli")
+                .email("marcelo_ungaretti@hotmail.com")
+                .build();
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+    }
+
+    @DisplayName("Junit test for getEmployeeById served from the cache")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenRepositoryIsHitOnce(){
+        employeeService.getEmployeeById(1L);
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(1L);
+
+        assertThat(cachedEmployee).contains(employee);
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    @DisplayName("Junit test for getEmployeeById not caching misses")
+    @Test
+    public void givenMissingEmployee_whenGetEmployeeById_thenMissIsNotCached(){
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty());
+
+        employeeService.getEmployeeById(2L);
+        employeeService.getEmployeeById(2L);
+
+        verify(employeeRepository, times(2)).findById(2L);
+    }
+
+    @DisplayName("Junit test for updateEmployee evicting the cached employee")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenCacheIsEvicted(){
+        given(employeeRepository.save(any(Employee.class))).willAnswer(invocation -> invocation.getArgument(0));
+        employeeService.getEmployeeById(1L);
+
+        employeeService.updateEmployee(employee);
+        employeeService.getEmployeeById(1L);
+
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    @DisplayName("Junit test for deleteEmployee evicting the cached employee")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenCacheIsEvicted(){
+        employeeService.getEmployeeById(1L);
+
+        employeeService.deleteEmployee(1L);
+        employeeService.getEmployeeById(1L);
+
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    private double singleFlightCalls(String result) {
+        return meterRegistry.find(MetricsConfig.SINGLE_FLIGHT_CALLS)
+                .tags("method", "getEmployeeById", "result", result)
+                .counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    @DisplayName("Junit test for concurrent getEmployeeById cache misses")
+    @Test
+    public void givenConcurrentMisses_whenGetEmployeeById_thenRepositoryIsHitOnce() throws Exception {
+        int callers = 8;
+        double coalescedBefore = singleFlightCalls("coalesced");
+        double leadersBefore = singleFlightCalls("leader");
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeRepository.findById(2L)).willAnswer(invocation -> {
+            release.await();
+            return Optional.of(employee);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Optional<Employee>>> results = IntStream.range(0, callers)
+                    .mapToObj(i -> executor.submit(() -> employeeService.getEmployeeById(2L)))
+                    .toList();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (singleFlightCalls("coalesced") - coalescedBefore < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<Optional<Employee>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).contains(employee);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Served from the cache, so it never reaches the single-flight aspect.
+        employeeService.getEmployeeById(2L);
+
+        verify(employeeRepository, times(1)).findById(2L);
+        assertThat(singleFlightCalls("coalesced") - coalescedBefore).isEqualTo(callers - 1);
+        assertThat(singleFlightCalls("leader") - leadersBefore).isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for getEmployeesByIds consulting the cache first")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeesByIds_thenLoadOnlyTheRestInRequestOrder(){
+        Employee other = Employee.builder()
+                .id(3L)
+                .firstName("Ana")
+                .lastName("Souza")
+                .email("ana.souza@email.com")
+                .build();
+        given(employeeRepository.findAllById(Set.of(3L, 2L))).willReturn(List.of(other));
+        employeeService.getEmployeeById(1L);
+
+        List<EmployeeLookupResult> results = employeeService.getEmployeesByIds(List.of(3L, 1L, 2L, 3L));
+
+        assertThat(results).extracting(EmployeeLookupResult::id).containsExactly(3L, 1L, 2L, 3L);
+        assertThat(results).extracting(EmployeeLookupResult::status).containsExactly(
+                EmployeeLookupResult.Status.FOUND, EmployeeLookupResult.Status.FOUND,
+                EmployeeLookupResult.Status.NOT_FOUND, EmployeeLookupResult.Status.FOUND);
+        // The loaded employee is now cached for single gets too.
+        assertThat(employeeService.getEmployeeById(3L)).contains(other);
+        verify(employeeRepository, never()).findById(3L);
+    }
+}
@@ -1,6 +1,16 @@
 package net.javaguides.springboot.service;
 
-import net.javaguides.springboot.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.springboot.config.MetricsConfig;
+import net.javaguides.springboot.dto.EmployeeBatchResult;
+import net.javaguides.springboot.dto.EmployeeFieldsPage;
+import net.javaguides.springboot.dto.EmployeePage;
+import net.javaguides.springboot.dto.EmployeePatch;
+import net.javaguides.springboot.dto.EmployeeSlice;
+import net.javaguides.springboot.event.EmployeeChangedEvent;
+import net.javaguides.springboot.exception.DuplicateEmailException;
+import net.javaguides.springboot.exception.EmployeeVersionConflictException;
+import net.javaguides.springboot.exception.UnknownEmployeeFieldException;
 import net.javaguides.springboot.model.Employee;
 import net.javaguides.springboot.repository.EmployeeRepository;
 import net.javaguides.springboot.service.impl.EmployeeServiceImpl;
@@ -11,16 +21,26 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
-import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +49,12 @@ public class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -47,8 +73,7 @@ public class EmployeeServiceTests {
     @DisplayName("Junit test for save employee method.")
     @Test
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject(){
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.empty());
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
         Employee savedEmployee = employeeService.saveEmployee(employee);
 
         assertThat(savedEmployee).isNotNull();
@@ -57,13 +82,44 @@ public class EmployeeServiceTests {
     @DisplayName("Junit test for save employee method which throws exception.")
     @Test
     public void givenExistingEmail_whenSaveEmployee_thenThrowsException(){
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("Duplicate entry 'marcelo_ungaretti@hotmail.com' for key 'employees.uk_employees_email'")));
 
-        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+        org.junit.jupiter.api.Assertions.assertThrows(DuplicateEmailException.class, () -> {
            employeeService.saveEmployee(employee);
         });
 
-        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(employeeRepository, never()).findByEmail(any(String.class));
+        assertThat(meterRegistry.counter(MetricsConfig.DUPLICATE_EMAIL_COUNTER, "operation", "saveEmployee").count())
+                .isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for save employee method with an unrelated constraint violation.")
+    @Test
+    public void givenOtherConstraintViolation_whenSaveEmployee_thenRethrowsException(){
+        given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("Column 'first_name' cannot be null")));
+
+        org.junit.jupiter.api.Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+           employeeService.saveEmployee(employee);
+        });
+    }
+
+    @DisplayName("Junit test for update employee method with an email that is already taken.")
+    @Test
+    public void givenExistingEmail_whenUpdateEmployee_thenThrowsException(){
+        given(employeeRepository.save(employee)).willReturn(employee);
+        willThrow(new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("Duplicate entry 'marcelo_ungaretti@hotmail.com' for key 'employees.uk_employees_email'")))
+                .given(employeeRepository).flush();
+
+        org.junit.jupiter.api.Assertions.assertThrows(DuplicateEmailException.class, () -> {
+           employeeService.updateEmployee(employee);
+        });
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(meterRegistry.counter(MetricsConfig.DUPLICATE_EMAIL_COUNTER, "operation", "updateEmployee").count())
+                .isEqualTo(1);
     }
 
     @DisplayName("Junit test for getAllEmployees method")
@@ -126,12 +182,223 @@ public class EmployeeServiceTests {
 
     @DisplayName("Junit test for deleteEmployee method")
     @Test
-    public void givenEmployeeId_whenDeleteEmployee_thenVoid(){
+    public void givenEmployeeId_whenDeleteEmployee_thenReturnTrue(){
         long employeeId = 1L;
-        BDDMockito.willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteEmployeeById(employeeId)).willReturn(1);
+
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, never()).findById(employeeId);
+    }
+
+    @DisplayName("Junit test for deleteEmployee method with a missing employee")
+    @Test
+    public void givenMissingEmployeeId_whenDeleteEmployee_thenReturnFalse(){
+        long employeeId = 1L;
+        given(employeeRepository.deleteEmployeeById(employeeId)).willReturn(0);
+
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+
+        assertThat(deleted).isFalse();
+        assertThat(meterRegistry.counter(MetricsConfig.NOT_FOUND_COUNTER, "operation", "deleteEmployee").count())
+                .isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for deleteEmployees method")
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount(){
+        List<Long> employeeIds = List.of(1L, 2L, 3L);
+        given(employeeRepository.findIdsForDelete(employeeIds)).willReturn(List.of(1L, 3L));
+        given(employeeRepository.deleteEmployeesByIdIn(List.of(1L, 3L))).willReturn(2);
+
+        int deleted = employeeService.deleteEmployees(employeeIds);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(meterRegistry.counter(MetricsConfig.NOT_FOUND_COUNTER, "operation", "deleteEmployees").count())
+                .isEqualTo(1);
+        // Only the employees that existed are announced as deleted.
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(1L));
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(3L));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @DisplayName("Junit test for getEmployeesAfter method")
+    @Test
+    public void givenMoreEmployeesThanLimit_whenGetEmployeesAfter_thenReturnPageWithNextCursor(){
+        Employee employee2 = Employee.builder()
+                .id(2L)
+                .firstName("Fulano")
+                .lastName("Da Silva")
+                .email("fulano_silva@hotmail.com")
+                .build();
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+                .willReturn(List.of(employee, employee2));
+
+        EmployeePage employeePage = employeeService.getEmployeesAfter(0L, 1);
+
+        assertThat(employeePage.content()).containsExactly(employee);
+        assertThat(employeePage.nextCursor()).isEqualTo(employee.getId());
+    }
+
+    @DisplayName("Junit test for getEmployeesAfter method on the last page")
+    @Test
+    public void givenLastPage_whenGetEmployeesAfter_thenReturnPageWithoutNextCursor(){
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 11)))
+                .willReturn(List.of(employee));
+
+        EmployeePage employeePage = employeeService.getEmployeesAfter(0L, 10);
+
+        assertThat(employeePage.content()).containsExactly(employee);
+        assertThat(employeePage.nextCursor()).isNull();
+    }
+
+    @DisplayName("Junit test for saveAll method with existing and repeated emails")
+    @Test
+    public void givenEmployeesWithDuplicatedEmails_whenSaveAll_thenReportConflicts(){
+        Employee employee2 = Employee.builder()
+                .firstName("Fulano")
+                .lastName("Da Silva")
+                .email("fulano_silva@hotmail.com")
+                .build();
+        Employee employee3 = Employee.builder()
+                .firstName("Fulano")
+                .lastName("Repetido")
+                .email("fulano_silva@hotmail.com")
+                .build();
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(List.of(employee.getEmail()));
+
+        List<EmployeeBatchResult> results = employeeService.saveAll(List.of(employee, employee2, employee3));
+
+        assertThat(results).extracting(EmployeeBatchResult::status).containsExactly(
+                EmployeeBatchResult.Status.CONFLICT,
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.CONFLICT);
+        verify(employeeRepository, times(1)).saveAll(List.of(employee2));
+    }
+
+    @DisplayName("Junit test for findEmployeesByName method")
+    @Test
+    public void givenFirstAndLastName_whenFindEmployeesByName_thenReturnSlice(){
+        PageRequest pageRequest = PageRequest.of(0, 20, Sort.by("id"));
+        given(employeeRepository.findByName("Marcelo", "Cainelli", pageRequest))
+                .willReturn(new SliceImpl<>(List.of(employee), pageRequest, false));
+
+        EmployeeSlice employeeSlice = employeeService.findEmployeesByName("Marcelo", "Cainelli", 0, 20);
+
+        assertThat(employeeSlice.content()).containsExactly(employee);
+        assertThat(employeeSlice.hasNext()).isFalse();
+        verify(employeeRepository, never()).findByLastName(any(), any());
+    }
+
+    @DisplayName("Junit test for patchEmployee method")
+    @Test
+    public void givenPatch_whenPatchEmployee_thenReturnTrue(){
+        EmployeePatch patch = new EmployeePatch("Novo Marcelo", null, null, null);
+        given(employeeRepository.patch(1L, "Novo Marcelo", null, null, null)).willReturn(1);
+
+        boolean patched = employeeService.patchEmployee(1L, patch);
+
+        assertThat(patched).isTrue();
+        verify(employeeRepository, never()).findById(anyLong());
+    }
+
+    @DisplayName("Junit test for patchEmployee method with a missing employee")
+    @Test
+    public void givenMissingEmployee_whenPatchEmployee_thenReturnFalse(){
+        EmployeePatch patch = new EmployeePatch("Novo Marcelo", null, null, null);
+        given(employeeRepository.patch(1L, "Novo Marcelo", null, null, null)).willReturn(0);
+
+        boolean patched = employeeService.patchEmployee(1L, patch);
+
+        assertThat(patched).isFalse();
+    }
+
+    @DisplayName("Junit test for patchEmployee method with a stale version")
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenThrowsException(){
+        EmployeePatch patch = new EmployeePatch("Novo Marcelo", null, null, 3L);
+        given(employeeRepository.patch(1L, "Novo Marcelo", null, null, 3L)).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+
+        org.junit.jupiter.api.Assertions.assertThrows(EmployeeVersionConflictException.class, () -> {
+            employeeService.patchEmployee(1L, patch);
+        });
+    }
+
+    @DisplayName("Junit test for getEmployeeById method with a missing employee")
+    @Test
+    public void givenMissingEmployeeId_whenGetEmployeeById_thenCountNotFound(){
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty());
+
+        Optional<Employee> found = employeeService.getEmployeeById(2L);
+
+        assertThat(found).isEmpty();
+        assertThat(meterRegistry.counter(MetricsConfig.NOT_FOUND_COUNTER, "operation", "getEmployeeById").count())
+                .isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for getAllEmployeeFields method")
+    @Test
+    public void givenFields_whenGetAllEmployeeFields_thenSelectDistinctFields(){
+        List<Map<String, Object>> rows = List.of(Map.of("id", 1L, "email", employee.getEmail()));
+        given(employeeRepository.findAllFields(List.of("id", "email"))).willReturn(rows);
+
+        List<Map<String, Object>> result = employeeService.getAllEmployeeFields(List.of("id", "email", "id"));
+
+        assertThat(result).isEqualTo(rows);
+    }
+
+    @DisplayName("Junit test for getEmployeeFieldsAfter method")
+    @Test
+    public void givenFieldsWithoutId_whenGetEmployeeFieldsAfter_thenReturnPageWithoutId(){
+        Map<String, Object> row = new LinkedHashMap<>(Map.of("email", employee.getEmail(), "id", 5L));
+        Map<String, Object> nextRow = new LinkedHashMap<>(Map.of("email", "next@gmail.com", "id", 6L));
+        given(employeeRepository.findFieldsAfter(List.of("email", "id"), 4L, 2)).willReturn(List.of(row, nextRow));
+
+        EmployeeFieldsPage page = employeeService.getEmployeeFieldsAfter(List.of("email"), 4L, 1);
+
+        assertThat(page.content()).containsExactly(Map.of("email", employee.getEmail()));
+        assertThat(page.nextCursor()).isEqualTo(5L);
+    }
+
+    @DisplayName("Junit test for getAllEmployeeFields method with an unknown field")
+    @Test
+    public void givenUnknownField_whenGetAllEmployeeFields_thenThrowsException(){
+        org.junit.jupiter.api.Assertions.assertThrows(UnknownEmployeeFieldException.class, () -> {
+            employeeService.getAllEmployeeFields(List.of("id", "salary"));
+        });
+
+        verify(employeeRepository, never()).findAllFields(any());
+    }
+
+    @DisplayName("Junit test for deleteEmployee method with a stale version")
+    @Test
+    public void givenStaleVersion_whenDeleteEmployee_thenThrowsException(){
+        given(employeeRepository.deleteEmployeeByIdAndVersion(1L, 3L)).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+
+        org.junit.jupiter.api.Assertions.assertThrows(EmployeeVersionConflictException.class, () -> {
+            employeeService.deleteEmployee(1L, 3L);
+        });
+    }
+
+    @DisplayName("Junit test for the change events published by write methods")
+    @Test
+    public void givenWrites_whenTheySucceed_thenPublishChangeEvents(){
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+        given(employeeRepository.patch(1L, "Ana", null, null, null)).willReturn(1);
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        given(employeeRepository.deleteEmployeeById(2L)).willReturn(0);
 
-        employeeService.deleteEmployee(employeeId);
+        employeeService.saveEmployee(employee);
+        employeeService.patchEmployee(1L, new EmployeePatch("Ana", null, null, null));
+        employeeService.deleteEmployee(1L);
+        employeeService.deleteEmployee(2L);
 
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.created(employee));
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.patched(1L));
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(1L));
+        verifyNoMoreInteractions(eventPublisher);
     }
 }
@@ -0,0 +1,113 @@
+package net.javaguides.springboot.service;
+
+import net.javaguides.springboot.dto.IdempotentResponse;
+import net.javaguides.springboot.exception.IdempotencyKeyInFlightException;
+import net.javaguides.springboot.exception.IdempotencyKeyReusedException;
+import net.javaguides.springboot.service.impl.IdempotencyServiceImpl;
+import net.javaguides.springboot.service.impl.InMemoryIdempotencyStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotencyServiceTests {
+
+    private static final IdempotentResponse CREATED = new IdempotentResponse(201, null, "{\"id\":1}");
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private IdempotencyService idempotencyService(Duration waitTimeout) {
+        return new IdempotencyServiceImpl(new InMemoryIdempotencyStore(100, Duration.ofHours(1)), waitTimeout);
+    }
+
+    private IdempotentResponse create(IdempotentResponse response) {
+        executions.incrementAndGet();
+        return response;
+    }
+
+    @DisplayName("Junit test for execute method with a repeated key")
+    @Test
+    public void givenCompletedKey_whenExecuteAgain_thenReplayWithoutRunning(){
+        IdempotencyService idempotencyService = idempotencyService(Duration.ofSeconds(1));
+
+        IdempotentResponse first = idempotencyService.execute("key-1", "hash", () -> create(CREATED));
+        IdempotentResponse replay = idempotencyService.execute("key-1", "hash", () -> create(CREATED));
+
+        assertThat(replay).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                idempotencyService.execute("key-1", "other-hash", () -> create(CREATED)));
+    }
+
+    @DisplayName("Junit test for execute method after a failed request")
+    @Test
+    public void givenFailedRequest_whenExecuteAgain_thenRunAgain(){
+        IdempotencyService idempotencyService = idempotencyService(Duration.ofSeconds(1));
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-1", "hash", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        idempotencyService.execute("key-1", "hash", () -> create(new IdempotentResponse(429, null, null)));
+        IdempotentResponse response = idempotencyService.execute("key-1", "hash", () -> create(CREATED));
+
+        assertThat(response).isEqualTo(CREATED);
+        assertThat(executions).hasValue(2);
+    }
+
+    @DisplayName("Junit test for execute method with a concurrent duplicate")
+    @Test
+    public void givenInFlightKey_whenExecute_thenWaitForTheFirstResponse() throws Exception {
+        IdempotencyService idempotencyService = idempotencyService(Duration.ofSeconds(5));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("key-1", "hash", () -> {
+                    running.countDown();
+                    try {
+                        finish.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return create(CREATED);
+                }));
+        running.await();
+
+        CompletableFuture<IdempotentResponse> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("key-1", "hash", () -> create(CREATED)));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        finish.countDown();
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(first.get(5, TimeUnit.SECONDS));
+        assertThat(executions).hasValue(1);
+    }
+
+    @DisplayName("Junit test for execute method when the first request takes too long")
+    @Test
+    public void givenSlowInFlightKey_whenExecute_thenThrowsException() throws Exception {
+        IdempotencyService idempotencyService = idempotencyService(Duration.ofMillis(50));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> idempotencyService.execute("key-1", "hash", () -> {
+            running.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return create(CREATED);
+        }));
+        running.await();
+
+        assertThrows(IdempotencyKeyInFlightException.class, () ->
+                idempotencyService.execute("key-1", "hash", () -> create(CREATED)));
+        finish.countDown();
+    }
+}
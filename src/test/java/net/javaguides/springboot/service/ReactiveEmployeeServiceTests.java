@@ -0,0 +1,85 @@
+package net.javaguides.springboot.service;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import net.javaguides.springboot.config.CachingConfig;
+import net.javaguides.springboot.exception.EmployeeVersionConflictException;
+import net.javaguides.springboot.model.Employee;
+import net.javaguides.springboot.service.impl.ReactiveEmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Runs the service's SQL against an in-memory H2 database through R2DBC.
+@ExtendWith(MockitoExtension.class)
+public class ReactiveEmployeeServiceTests {
+
+    private final ConnectionFactory connectionFactory = ConnectionFactories.get("r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1");
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CachingConfig.EMPLOYEES_CACHE);
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private ReactiveEmployeeService reactiveEmployeeService;
+
+    private final Employee update = Employee.builder()
+            .firstName("Mara")
+            .lastName("Ungaretti")
+            .email("mara.ungaretti@email.com")
+            .build();
+
+    @BeforeEach
+    public void setup(){
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        databaseClient.sql("DROP TABLE IF EXISTS employees").then().block();
+        databaseClient.sql("CREATE TABLE employees (id BIGINT PRIMARY KEY, first_name VARCHAR(255) NOT NULL, " +
+                "last_name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, version BIGINT NOT NULL, " +
+                "CONSTRAINT uk_employees_email UNIQUE (email))").then().block();
+        databaseClient.sql("INSERT INTO employees VALUES (1, 'Marcelo', 'Ungaretti', 'marcelo@email.com', 2)").then().block();
+        reactiveEmployeeService = new ReactiveEmployeeServiceImpl(connectionFactory, employeeService, cacheManager);
+        cacheManager.getCache(CachingConfig.EMPLOYEES_CACHE).put(1L, Employee.builder().id(1L).build());
+    }
+
+    @DisplayName("Junit test for reactive updateEmployee method at the current version")
+    @Test
+    public void givenCurrentVersion_whenUpdateEmployee_thenUpdateAndEvict(){
+        Employee updated = reactiveEmployeeService.updateEmployee(1L, update, 2L).block();
+
+        assertThat(updated.getFirstName()).isEqualTo("Mara");
+        assertThat(updated.getVersion()).isEqualTo(3L);
+        assertThat(cacheManager.getCache(CachingConfig.EMPLOYEES_CACHE).get(1L)).isNull();
+    }
+
+    @DisplayName("Junit test for reactive updateEmployee method at a stale version")
+    @Test
+    public void givenStaleVersion_whenUpdateEmployee_thenThrowsConflictAndKeepsTheRow(){
+        assertThrows(EmployeeVersionConflictException.class,
+                () -> reactiveEmployeeService.updateEmployee(1L, update, 1L).block());
+        assertThat(reactiveEmployeeService.updateEmployee(9L, update, 1L).block()).isNull();
+
+        Employee employee = reactiveEmployeeService.getEmployeeById(1L).block();
+        assertThat(employee.getFirstName()).isEqualTo("Marcelo");
+        assertThat(employee.getVersion()).isEqualTo(2L);
+    }
+
+    @DisplayName("Junit test for reactive deleteEmployee method with a version")
+    @Test
+    public void givenVersion_whenDeleteEmployee_thenDeleteOnlyAtThatVersion(){
+        assertThrows(EmployeeVersionConflictException.class,
+                () -> reactiveEmployeeService.deleteEmployee(1L, 1L).block());
+
+        assertThat(reactiveEmployeeService.deleteEmployee(1L, 2L).block()).isTrue();
+        assertThat(reactiveEmployeeService.deleteEmployee(1L, 2L).block()).isFalse();
+        assertThat(cacheManager.getCache(CachingConfig.EMPLOYEES_CACHE).get(1L)).isNull();
+    }
+}